@@ -0,0 +1,145 @@
+package com.java.bankapp.benchmark;
+
+import com.java.bankapp.dto.CustomerDTO;
+import com.java.bankapp.dto.TransactionPageDTO;
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.entity.Customer;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.repository.CustomerRepository;
+import com.java.bankapp.service.AccountService;
+import com.java.bankapp.service.CustomerService;
+import com.java.bankapp.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer throughput against H2. {@code dataSize} is the number of customers, each
+ * with one account; the history benchmark pages through one account with
+ * {@code HISTORY_SIZE} transactions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountServiceBenchmark {
+
+    private static final int HISTORY_SIZE = 2_000;
+    private static final Money OPENING_BALANCE = Money.valueOf("1000000000");
+    private static final Money AMOUNT = Money.valueOf("1.00");
+
+    @Param({"1000", "10000"})
+    public int dataSize;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private CustomerService customerService;
+    private TransactionService transactionService;
+    private long[] accountIds;
+    private Long historyAccountId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        context = BankAppContext.start();
+        accountService = context.getBean(AccountService.class);
+        customerService = context.getBean(CustomerService.class);
+        transactionService = context.getBean(TransactionService.class);
+
+        CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        accountIds = new long[dataSize];
+        for (int offset = 0; offset < dataSize; offset += 1_000) {
+            int from = offset;
+            int to = Math.min(offset + 1_000, dataSize);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Account> accounts = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    Customer customer = new Customer();
+                    customer.setFirstName("Customer" + i);
+                    customer.setLastName("Bench");
+                    customer.setEmail("customer" + i + "@bench.example");
+                    customerRepository.save(customer);
+
+                    Account account = new Account();
+                    account.setCustomer(customer);
+                    account.setBalance(OPENING_BALANCE);
+                    accounts.add(account);
+                }
+                List<Account> saved = accountRepository.saveAll(accounts);
+                for (int i = 0; i < saved.size(); i++) {
+                    accountIds[from + i] = saved.get(i).getId();
+                }
+            });
+        }
+
+        historyAccountId = accountIds[0];
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < HISTORY_SIZE; i++) {
+                transactionService.recordMovement(TransactionType.DEPOSIT, null, historyAccountId, AMOUNT);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomAccount() {
+        return accountIds[ThreadLocalRandom.current().nextInt(accountIds.length)];
+    }
+
+    @Benchmark
+    public void deposit() {
+        accountService.deposit(randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    public void withdraw() {
+        accountService.withdraw(randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    public void transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accountIds.length);
+        int to = (from + 1 + random.nextInt(accountIds.length - 1)) % accountIds.length;
+        accountService.transfer(accountIds[from], accountIds[to], AMOUNT);
+    }
+
+    @Benchmark
+    public TransactionPageDTO getTransactionsByAccount() {
+        return transactionService.getTransactionsByAccount(historyAccountId, null, 50);
+    }
+
+    @Benchmark
+    public List<CustomerDTO> getAllCustomers() {
+        return customerService.getAllCustomers();
+    }
+}
@@ -0,0 +1,46 @@
+package com.java.bankapp.benchmark;
+
+import com.java.bankapp.BankAppApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application against its own in-memory H2 database, so every benchmark trial
+ * starts from an empty schema. The web tier is only started when a benchmark goes through HTTP.
+ */
+final class BankAppContext {
+
+    private BankAppContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        return start(WebApplicationType.NONE, extraProperties);
+    }
+
+    // With Tomcat on a random port, read back through local.server.port
+    static ConfigurableApplicationContext startWeb(String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(extraProperties));
+        properties.add("server.port=0");
+        return start(WebApplicationType.SERVLET, properties.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... extraProperties) {
+
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN"));
+        properties.addAll(List.of(extraProperties));
+
+        // Passed as command-line arguments so they override application.properties
+        return new SpringApplicationBuilder(BankAppApplication.class)
+                .web(webApplicationType)
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+}
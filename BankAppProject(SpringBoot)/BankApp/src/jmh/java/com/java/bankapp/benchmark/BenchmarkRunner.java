@@ -0,0 +1,44 @@
+package com.java.bankapp.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs the selected benchmarks once per thread count with the GC profiler attached and
+ * writes one JMH JSON result file per thread count, named after the current commit when
+ * {@code GIT_COMMIT} is set so runs can be diffed.
+ *
+ * <p>Arguments: include regex, comma-separated thread counts, output directory.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+
+        String include = args.length > 0 ? args[0] : ".*";
+        String threads = args.length > 1 ? args[1] : "1,4,16";
+        Path output = Files.createDirectories(Path.of(args.length > 2 ? args[2] : "target/jmh"));
+        String label = System.getenv().getOrDefault("GIT_COMMIT", "local");
+
+        for (String count : threads.split(",")) {
+            int threadCount = Integer.parseInt(count.trim());
+
+            Options options = new OptionsBuilder()
+                    .include("com\\.java\\.bankapp\\.benchmark\\." + include)
+                    .threads(threadCount)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(output.resolve(label + "-t" + threadCount + ".json").toString())
+                    .build();
+
+            new Runner(options).run();
+        }
+    }
+}
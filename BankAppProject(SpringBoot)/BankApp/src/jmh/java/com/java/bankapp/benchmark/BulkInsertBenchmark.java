@@ -0,0 +1,87 @@
+package com.java.bankapp.benchmark;
+
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.entity.Transaction;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.money.Money;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second for bulk JPA inserts of accounts, each with one transaction, at
+ * different id block sizes. A block size of 1 costs one sequence call per row. Running
+ * the same benchmark on a commit that still used IDENTITY gives the unbatched baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    @Param({"1", "50", "500"})
+    public int blockSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BankAppContext.start("spring.jpa.properties.bankapp.id.block-size=" + blockSize);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertAccountsWithTransactions() {
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+
+            for (int i = 0; i < ROWS; i++) {
+                Account account = new Account();
+                account.setBalance(Money.ofMinor(10_000));
+                entityManager.persist(account);
+
+                Transaction transaction = new Transaction();
+                transaction.setTransactionType(TransactionType.DEPOSIT);
+                transaction.setAmount(Money.ofMinor(10_000));
+                transaction.setTransactionDate(now);
+                transaction.setToAccount(account);
+                entityManager.persist(transaction);
+            }
+
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package com.java.bankapp.benchmark;
+
+import com.java.bankapp.config.JournalProperties;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.eventsourcing.BalanceSnapshotStore;
+import com.java.bankapp.eventsourcing.EventReplayer;
+import com.java.bankapp.journal.TransactionJournal;
+import com.java.bankapp.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup cost of rebuilding every balance from the journal: a cold replay of all
+ * {@code events}, and a replay of only the last {@code eventsAfterSnapshot} on top of a
+ * snapshot. The journal is generated once per trial in a temporary directory (64 bytes a
+ * record, so about 6.4 GB at the default size) and deleted afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EventSourcingStartupBenchmark {
+
+    @Param({"100000000"})
+    public long events;
+
+    @Param({"1000000"})
+    public int accounts;
+
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    @Param({"1000000"})
+    public long eventsAfterSnapshot;
+
+    // 0 replays with one partition per core
+    @Param({"0"})
+    public int partitions;
+
+    private Path directory;
+    private TransactionJournal journal;
+    private BalanceSnapshotStore snapshots;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("bankapp-event-sourcing");
+
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory.resolve("journal").toString());
+        properties.setFsync(JournalProperties.FsyncMode.NONE);
+        journal = new TransactionJournal(properties);
+        snapshots = new BalanceSnapshotStore(directory.resolve("snapshots"), 2);
+
+        long beforeSnapshot = snapshot ? events - eventsAfterSnapshot : events;
+        append(beforeSnapshot);
+        if (snapshot) {
+            EventReplayer.Rebuild rebuild = new EventReplayer(journal, partitions).rebuild(snapshots);
+            snapshots.write(rebuild.lastSequence(), rebuild.partitions());
+            append(eventsAfterSnapshot);
+        }
+    }
+
+    // One deposit in ten, the rest transfers spread over the accounts
+    private void append(long records) {
+        for (long i = 0; i < records; i++) {
+            long sequence = journal.getLastSequence() + 1;
+            Money amount = Money.ofMinor(sequence % 997 + 1);
+            if (sequence % 10 == 0) {
+                journal.append(TransactionType.DEPOSIT, null, sequence % accounts + 1, amount);
+            } else {
+                journal.append(TransactionType.TRANSFER, (sequence * 7919) % accounts + 1, sequence % accounts + 1, amount);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public EventReplayer.Rebuild rebuild() {
+
+        EventReplayer.Rebuild rebuild = new EventReplayer(journal, partitions).rebuild(snapshots);
+        if (rebuild.lastSequence() != events || rebuild.accounts() != accounts) {
+            throw new IllegalStateException("Rebuilt " + rebuild.accounts() + " accounts up to "
+                    + rebuild.lastSequence() + ", expected " + accounts + " up to " + events);
+        }
+        return rebuild;
+    }
+}
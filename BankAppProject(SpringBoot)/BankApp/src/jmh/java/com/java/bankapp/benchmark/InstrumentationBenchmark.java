@@ -0,0 +1,77 @@
+package com.java.bankapp.benchmark;
+
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit throughput with the service timers and Hibernate statistics off, timing every
+ * call, and sampling one call in ten. Compare the three {@code metrics} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstrumentationBenchmark {
+
+    private static final Money AMOUNT = Money.valueOf("1.00");
+
+    @Param({"off", "all", "sampled"})
+    public String metrics;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private long[] accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        context = switch (metrics) {
+            case "off" -> BankAppContext.start("bankapp.metrics.enabled=false");
+            case "all" -> BankAppContext.start("bankapp.metrics.enabled=true", "bankapp.metrics.sample-every=1");
+            default -> BankAppContext.start("bankapp.metrics.enabled=true", "bankapp.metrics.sample-every=10");
+        };
+        accountService = context.getBean(AccountService.class);
+
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Account account = new Account();
+            account.setBalance(Money.ZERO);
+            accounts.add(account);
+        }
+        accountIds = accountRepository.saveAll(accounts).stream().mapToLong(Account::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void deposit() {
+        accountService.deposit(accountIds[ThreadLocalRandom.current().nextInt(accountIds.length)], AMOUNT);
+    }
+}
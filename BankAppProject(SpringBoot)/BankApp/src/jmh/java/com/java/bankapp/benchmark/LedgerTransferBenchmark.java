@@ -0,0 +1,102 @@
+package com.java.bankapp.benchmark;
+
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Random transfers between {@code accounts} accounts through {@link AccountService}, on the
+ * JPA path and with the in-memory ledger, recording each movement as a JPA insert, a journal
+ * append or a group-committed row. Run with several threads ({@code -Djmh.threads=1,16,32})
+ * to see how each combination behaves under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LedgerTransferBenchmark {
+
+    private static final Money OPENING_BALANCE = Money.valueOf("1000000000");
+    private static final Money AMOUNT = Money.valueOf("1.00");
+
+    @Param({"false", "true"})
+    public boolean ledger;
+
+    @Param({"jpa", "journal", "group-commit"})
+    public String recorder;
+
+    @Param({"1000"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private Path journalDirectory;
+    private AccountService accountService;
+    private long[] accountIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        journalDirectory = Files.createTempDirectory("bankapp-bench-journal");
+        context = BankAppContext.start(
+                "bankapp.ledger.enabled=" + ledger,
+                "bankapp.journal.enabled=" + recorder.equals("journal"),
+                "bankapp.journal.directory=" + journalDirectory,
+                "bankapp.group-commit.enabled=" + recorder.equals("group-commit"));
+        accountService = context.getBean(AccountService.class);
+
+        List<Account> created = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            Account account = new Account();
+            account.setBalance(OPENING_BALANCE);
+            created.add(account);
+        }
+        accountIds = context.getBean(AccountRepository.class).saveAll(created).stream()
+                .mapToLong(Account::getId)
+                .toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(journalDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accountIds.length);
+        int to = (from + 1 + random.nextInt(accountIds.length - 1)) % accountIds.length;
+        accountService.transfer(accountIds[from], accountIds[to], AMOUNT);
+    }
+}
@@ -0,0 +1,107 @@
+package com.java.bankapp.benchmark;
+
+import com.java.bankapp.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The compare / subtract / add step of a transfer on the previous {@code BigDecimal}
+ * representation against {@link Money} and against the raw minor-unit {@code long}
+ * the in-memory ledger uses. Run with the GC profiler to compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int ACCOUNTS = 1024;
+
+    private BigDecimal[] decimalBalances;
+    private Money[] moneyBalances;
+    private long[] minorBalances;
+
+    private BigDecimal decimalAmount;
+    private Money moneyAmount;
+    private long minorAmount;
+
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+
+        decimalBalances = new BigDecimal[ACCOUNTS];
+        moneyBalances = new Money[ACCOUNTS];
+        minorBalances = new long[ACCOUNTS];
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            decimalBalances[i] = new BigDecimal("1000000.00");
+            moneyBalances[i] = Money.valueOf("1000000.00");
+            minorBalances[i] = moneyBalances[i].minorUnits();
+        }
+
+        decimalAmount = new BigDecimal("12.34");
+        moneyAmount = Money.valueOf("12.34");
+        minorAmount = moneyAmount.minorUnits();
+    }
+
+    private int nextFrom() {
+        cursor = (cursor + 1) & (ACCOUNTS - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public boolean bigDecimalTransfer() {
+
+        int from = nextFrom();
+        int to = (from + 1) & (ACCOUNTS - 1);
+
+        if (decimalBalances[from].compareTo(decimalAmount) < 0) {
+            return false;
+        }
+        decimalBalances[from] = decimalBalances[from].subtract(decimalAmount);
+        decimalBalances[to] = decimalBalances[to].add(decimalAmount);
+        return true;
+    }
+
+    @Benchmark
+    public boolean moneyTransfer() {
+
+        int from = nextFrom();
+        int to = (from + 1) & (ACCOUNTS - 1);
+
+        if (moneyBalances[from].isLessThan(moneyAmount)) {
+            return false;
+        }
+        moneyBalances[from] = moneyBalances[from].minus(moneyAmount);
+        moneyBalances[to] = moneyBalances[to].plus(moneyAmount);
+        return true;
+    }
+
+    @Benchmark
+    public boolean minorUnitTransfer() {
+
+        int from = nextFrom();
+        int to = (from + 1) & (ACCOUNTS - 1);
+
+        if (minorBalances[from] < minorAmount) {
+            return false;
+        }
+        minorBalances[from] = Math.subtractExact(minorBalances[from], minorAmount);
+        minorBalances[to] = Math.addExact(minorBalances[to], minorAmount);
+        return true;
+    }
+}
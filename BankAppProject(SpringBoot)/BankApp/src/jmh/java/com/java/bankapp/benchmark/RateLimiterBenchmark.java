@@ -0,0 +1,56 @@
+package com.java.bankapp.benchmark;
+
+import com.java.bankapp.ratelimit.TokenBucketLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link TokenBucketLimiter#tryAcquire} with {@code keys} buckets already
+ * in the cache, for a random key and for one hot key shared by all threads. The rate is high
+ * enough that nothing is throttled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"100000"})
+    public int keys;
+
+    private TokenBucketLimiter limiter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        limiter = new TokenBucketLimiter(1e9, 1_000_000, keys * 2L, Duration.ofMinutes(10), System::nanoTime);
+        for (long key = 1; key <= keys; key++) {
+            limiter.tryAcquire(key);
+        }
+    }
+
+    @Benchmark
+    public long randomKey() {
+        return limiter.tryAcquire(ThreadLocalRandom.current().nextLong(1, keys + 1L));
+    }
+
+    @Benchmark
+    public long hotKey() {
+        return limiter.tryAcquire(1L);
+    }
+}
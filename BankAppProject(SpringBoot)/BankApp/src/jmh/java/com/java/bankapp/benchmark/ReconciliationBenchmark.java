@@ -0,0 +1,92 @@
+package com.java.bankapp.benchmark;
+
+import com.java.bankapp.dto.ReconciliationRunDTO;
+import com.java.bankapp.service.ReconciliationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall time of one full reconciliation over a generated ledger: one deposit in ten, the
+ * rest transfers spread over the accounts, and balances that match. The default size fits
+ * the benchmark heap; on a larger machine pass {@code -p transactions=50000000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ReconciliationBenchmark {
+
+    private static final int CHUNK = 500_000;
+
+    @Param({"100000"})
+    public int accounts;
+
+    @Param({"2000000"})
+    public int transactions;
+
+    private ConfigurableApplicationContext context;
+    private ReconciliationService reconciliationService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BankAppContext.start("spring.jpa.properties.hibernate.generate_statistics=false");
+        reconciliationService = context.getBean(ReconciliationService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("""
+                insert into account (id, balance, shard_count, version, account_type, status)
+                select x, 0, 0, 0, 'SAVINGS', 'ACTIVE' from system_range(1, ?)
+                """, accounts);
+
+        for (long first = 1; first <= transactions; first += CHUNK) {
+            jdbcTemplate.update("""
+                    insert into transaction (id, transaction_type, amount, transaction_date, from_account_id, to_account_id)
+                    select x,
+                           case when mod(x, 10) = 0 then 'DEPOSIT' else 'TRANSFER' end,
+                           mod(x, 997) + 1,
+                           timestamp '2026-01-01 00:00:00',
+                           case when mod(x, 10) = 0 then null else mod(x * 7919, ?) + 1 end,
+                           mod(x, ?) + 1
+                    from system_range(?, ?)
+                    """, accounts, accounts, first, Math.min(transactions, first + CHUNK - 1));
+        }
+
+        jdbcTemplate.update("""
+                update account a set balance =
+                    coalesce((select sum(t.amount) from transaction t where t.to_account_id = a.id), 0)
+                  - coalesce((select sum(t.amount) from transaction t where t.from_account_id = a.id), 0)
+                """);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReconciliationRunDTO fullRun() {
+
+        ReconciliationRunDTO run = reconciliationService.reconcile(false);
+        if (run.getMismatches() != 0) {
+            throw new IllegalStateException(run.getMismatches() + " mismatches in a consistent ledger");
+        }
+        return run;
+    }
+}
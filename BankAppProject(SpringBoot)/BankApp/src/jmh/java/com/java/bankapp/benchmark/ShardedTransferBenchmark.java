@@ -0,0 +1,75 @@
+package com.java.bankapp.benchmark;
+
+import com.java.bankapp.money.Money;
+import com.java.bankapp.sharding.ShardedAccountStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate transfer throughput over {@code databases} shard databases, between random
+ * accounts, so (N - 1) / N of the transfers cross shards and run as sagas. Scaling with the
+ * shard count shows at thread counts above one and on as many cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShardedTransferBenchmark {
+
+    private static final int ACCOUNTS = 10_000;
+    private static final Money OPENING_BALANCE = Money.valueOf("1000000000");
+    private static final Money AMOUNT = Money.valueOf("1.00");
+
+    @Param({"1", "2", "4"})
+    public int databases;
+
+    private ConfigurableApplicationContext context;
+    private ShardedAccountStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        context = BankAppContext.start(
+                "bankapp.sharding.enabled=true",
+                "bankapp.sharding.databases=" + databases,
+                "bankapp.sharding.url-template=jdbc:h2:mem:bench-shard-" + UUID.randomUUID() + "-%d;DB_CLOSE_DELAY=-1",
+                "bankapp.sharding.pool-size=16");
+        store = context.getBean(ShardedAccountStore.class);
+
+        // Balances live only in the shards, so the accounts are opened there directly
+        for (long id = 1; id <= ACCOUNTS; id++) {
+            store.createAccount(id);
+            store.deposit(id, OPENING_BALANCE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void transfer() {
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        store.transfer(1 + random.nextInt(ACCOUNTS), 1 + random.nextInt(ACCOUNTS), AMOUNT);
+    }
+}
@@ -0,0 +1,70 @@
+package com.java.bankapp.benchmark;
+
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.service.AccountService;
+import com.java.bankapp.service.SubLedgerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposits into a single hot account spread over {@code shards} sub-ledger rows, 1 meaning
+ * not sharded. Run with several threads ({@code -Djmh.threads=32}); with one thread there is
+ * no row contention for the shards to remove.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubLedgerDepositBenchmark {
+
+    private static final Money AMOUNT = Money.valueOf("1.00");
+
+    @Param({"1", "4", "16"})
+    public int shards;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private Long accountId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        context = BankAppContext.start();
+        accountService = context.getBean(AccountService.class);
+
+        Account account = new Account();
+        account.setBalance(Money.ZERO);
+        accountId = context.getBean(AccountRepository.class).save(account).getId();
+        if (shards > 1) {
+            context.getBean(SubLedgerService.class).enableSharding(accountId, shards);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void deposit() {
+        accountService.deposit(accountId, AMOUNT);
+    }
+}
@@ -0,0 +1,90 @@
+package com.java.bankapp.benchmark;
+
+import com.java.bankapp.config.VelocityProperties;
+import com.java.bankapp.entity.AccountType;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.velocity.VelocityEngine;
+import com.java.bankapp.velocity.VelocityWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one velocity check on {@link VelocityEngine} with {@code trackedAccounts} accounts
+ * already in memory, for a random account and for a single hot account shared by all
+ * threads. Limits are set high enough that nothing is refused. The setup prints the
+ * retained heap per tracked account.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class VelocityBenchmark {
+
+    @Param({"1000000"})
+    public int trackedAccounts;
+
+    private VelocityEngine engine;
+    private final Money amount = Money.valueOf("1.00");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        VelocityProperties.Limit limit = new VelocityProperties.Limit();
+        limit.setMaxCount(Integer.MAX_VALUE);
+        limit.setMaxAmount(Money.ofMinor(Long.MAX_VALUE >> 20));
+
+        Map<VelocityWindow, VelocityProperties.Limit> windows = new EnumMap<>(VelocityWindow.class);
+        for (VelocityWindow window : VelocityWindow.values()) {
+            windows.put(window, limit);
+        }
+
+        VelocityProperties properties = new VelocityProperties();
+        properties.setMaximumAccounts(trackedAccounts * 2L);
+        properties.getLimits().put(AccountType.SAVINGS, windows);
+
+        long before = usedHeap();
+        engine = new VelocityEngine(properties, id -> AccountType.SAVINGS, System::currentTimeMillis);
+        for (long id = 1; id <= trackedAccounts; id++) {
+            engine.reserve(id, amount);
+        }
+        long after = usedHeap();
+
+        System.out.printf("%n%d accounts tracked, ~%d bytes retained per account%n",
+                engine.trackedAccounts(), (after - before) / trackedAccounts);
+    }
+
+    @Benchmark
+    public long randomAccount() {
+        return engine.reserve(ThreadLocalRandom.current().nextLong(1, trackedAccounts + 1L), amount);
+    }
+
+    @Benchmark
+    public long hotAccount() {
+        return engine.reserve(1L, amount);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
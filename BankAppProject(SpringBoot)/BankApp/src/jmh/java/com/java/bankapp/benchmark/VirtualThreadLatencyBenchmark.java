@@ -0,0 +1,99 @@
+package com.java.bankapp.benchmark;
+
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of HTTP deposits with Tomcat on platform threads and on virtual threads behind
+ * the database gate. Every benchmark thread is one client sending deposits back to back, so
+ * run with as many threads as concurrent clients ({@code -Djmh.threads=5000}) and compare
+ * the p0.99 lines of the two {@code virtualThreads} values. The gate timeout is raised so an
+ * overloaded run queues in both modes instead of failing requests in one of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class VirtualThreadLatencyBenchmark {
+
+    private static final int ACCOUNTS = 100;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientPool;
+    private HttpClient http;
+    private List<HttpRequest> deposits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        context = BankAppContext.startWeb(
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "bankapp.db-gate.acquire-timeout=10m");
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+        List<Account> created = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setBalance(Money.ZERO);
+            created.add(account);
+        }
+        deposits = context.getBean(AccountRepository.class).saveAll(created).stream()
+                .map(account -> HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                                + "/accounts/deposit?accountId=" + account.getId() + "&amount=1"))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build())
+                .toList();
+
+        clientPool = Executors.newVirtualThreadPerTaskExecutor();
+        http = HttpClient.newBuilder().executor(clientPool).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        http.close();
+        clientPool.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int deposit() throws Exception {
+
+        HttpRequest request = deposits.get(ThreadLocalRandom.current().nextInt(deposits.size()));
+        int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("Deposit answered " + status);
+        }
+        return status;
+    }
+}
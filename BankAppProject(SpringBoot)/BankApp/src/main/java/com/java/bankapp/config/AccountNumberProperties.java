@@ -0,0 +1,29 @@
+package com.java.bankapp.config;
+
+import com.java.bankapp.entity.AccountType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.account-number")
+public class AccountNumberProperties {
+
+    // Leading digits per account type; the serial and a Luhn check digit follow
+    private Map<AccountType, String> prefixes = new EnumMap<>(Map.of(
+            AccountType.SAVINGS, "10",
+            AccountType.CURRENT, "20"));
+
+    // Zero-padded width of the serial part
+    private int serialDigits = 9;
+
+    // Serials reserved from the database at a time; unused ones are skipped after a restart
+    private int blockSize = 1000;
+
+}
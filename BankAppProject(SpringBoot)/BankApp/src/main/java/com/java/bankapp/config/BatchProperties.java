@@ -0,0 +1,17 @@
+package com.java.bankapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.batch")
+public class BatchProperties {
+
+    // Transfers applied per database transaction
+    private int chunkSize = 500;
+
+}
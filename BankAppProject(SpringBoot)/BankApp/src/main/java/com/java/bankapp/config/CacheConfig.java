@@ -0,0 +1,31 @@
+package com.java.bankapp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.java.bankapp.dto.AccountDTO;
+import com.java.bankapp.dto.CustomerDTO;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public Cache<Long, AccountDTO> accountCache(ReadCacheProperties properties) {
+        return build(properties.getAccounts());
+    }
+
+    @Bean
+    public Cache<Long, CustomerDTO> customerCache(ReadCacheProperties properties) {
+        return build(properties.getCustomers());
+    }
+
+    // Caffeine evicts by size with W-TinyLFU admission
+    private static <V> Cache<Long, V> build(ReadCacheProperties.Region region) {
+        return Caffeine.newBuilder()
+                .maximumSize(region.getMaximumSize())
+                .expireAfterWrite(region.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+}
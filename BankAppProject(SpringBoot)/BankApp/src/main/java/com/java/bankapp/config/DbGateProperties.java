@@ -0,0 +1,23 @@
+package com.java.bankapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.db-gate")
+public class DbGateProperties {
+
+    private boolean enabled = false;
+
+    // Concurrent connection holders allowed; 0 means the connection pool's maximum size
+    private int permits = 0;
+
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+
+}
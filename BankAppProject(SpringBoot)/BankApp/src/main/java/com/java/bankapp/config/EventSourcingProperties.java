@@ -0,0 +1,29 @@
+package com.java.bankapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.event-sourcing")
+public class EventSourcingProperties {
+
+    private boolean enabled = false;
+
+    private String snapshotDirectory = System.getProperty("java.io.tmpdir") + "/bankapp-snapshots";
+
+    private long snapshotIntervalMs = 60_000;
+
+    // Journal records that must have arrived since the last snapshot before another is written
+    private long snapshotMinEvents = 100_000;
+
+    // Snapshot files kept; older ones are deleted after each new snapshot
+    private int snapshotsRetained = 2;
+
+    // Account partitions replayed in parallel at startup; 0 uses every core
+    private int replayPartitions = 0;
+
+}
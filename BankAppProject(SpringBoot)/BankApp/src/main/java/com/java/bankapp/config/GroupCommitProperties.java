@@ -0,0 +1,30 @@
+package com.java.bankapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.group-commit")
+public class GroupCommitProperties {
+
+    private boolean enabled = false;
+
+    // Pre-allocated slots; rounded up to a power of two
+    private int ringSize = 8192;
+
+    // Most rows written in one database transaction
+    private int maxBatchSize = 500;
+
+    // Longest the writer waits for a batch to fill once it holds at least one row
+    private Duration maxLatency = Duration.ofMillis(1);
+
+    // How long a publisher waits for a free slot before the call fails
+    private Duration publishTimeout = Duration.ofSeconds(1);
+
+}
@@ -0,0 +1,20 @@
+package com.java.bankapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.import")
+public class ImportProperties {
+
+    // Where reject files are kept, one per job id
+    private String directory = System.getProperty("java.io.tmpdir") + "/bankapp-import";
+
+    // Rows inserted per database transaction; the checkpoint advances with each chunk
+    private int chunkSize = 1000;
+
+}
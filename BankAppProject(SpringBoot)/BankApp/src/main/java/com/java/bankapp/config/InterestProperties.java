@@ -0,0 +1,32 @@
+package com.java.bankapp.config;
+
+import com.java.bankapp.entity.AccountType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.interest")
+public class InterestProperties {
+
+    // Spring cron expression for the nightly run; "-" disables the schedule
+    private String cron = "-";
+
+    // Annual rate per account type in basis points; types without a rate earn nothing
+    private Map<AccountType, Integer> annualRateBps = new EnumMap<>(Map.of(AccountType.SAVINGS, 350));
+
+    private int dayCountBasis = 365;
+
+    // Account id ranges processed concurrently, each on its own virtual thread
+    private int partitions = 16;
+
+    // Accounts read, updated and checkpointed per database transaction
+    private int pageSize = 1000;
+
+}
@@ -0,0 +1,35 @@
+package com.java.bankapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.journal")
+public class JournalProperties {
+
+    public enum FsyncMode {
+        NONE,
+        INTERVAL,
+        EVERY_WRITE
+    }
+
+    private boolean enabled = false;
+
+    private String directory = System.getProperty("java.io.tmpdir") + "/bankapp-journal";
+
+    // Bytes per segment file before rolling over to a new one
+    private long segmentSize = 64L * 1024 * 1024;
+
+    private FsyncMode fsync = FsyncMode.INTERVAL;
+
+    private long fsyncIntervalMs = 100;
+
+    private long projectorIntervalMs = 500;
+
+    private int projectorBatchSize = 1000;
+
+}
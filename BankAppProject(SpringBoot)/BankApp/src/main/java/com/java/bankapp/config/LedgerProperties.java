@@ -0,0 +1,21 @@
+package com.java.bankapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.ledger")
+public class LedgerProperties {
+
+    private boolean enabled = false;
+
+    // Number of lock stripes shared by all accounts (rounded up to a power of two)
+    private int stripes = 1024;
+
+    private long flushIntervalMs = 200;
+
+}
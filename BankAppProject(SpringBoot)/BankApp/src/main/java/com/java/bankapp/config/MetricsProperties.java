@@ -0,0 +1,19 @@
+package com.java.bankapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.metrics")
+public class MetricsProperties {
+
+    private boolean enabled = false;
+
+    // Record one call in this many, picked at random; 1 records every call
+    private int sampleEvery = 1;
+
+}
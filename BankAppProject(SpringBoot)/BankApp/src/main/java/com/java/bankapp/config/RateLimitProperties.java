@@ -0,0 +1,44 @@
+package com.java.bankapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = false;
+
+    // Buckets kept per endpoint; the least valuable are evicted beyond this
+    private long maximumKeys = 100_000;
+
+    // A bucket untouched this long is dropped; it would have refilled completely anyway
+    private Duration idleExpiry = Duration.ofMinutes(10);
+
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+
+        private String path;
+
+        // Request parameter holding the id each bucket is keyed by, e.g. accountId or customerId;
+        // left empty, the endpoint is throttled as a whole
+        private String keyParameter = "accountId";
+
+        private double permitsPerSecond = 10;
+
+        // Requests allowed back to back after a quiet period
+        private int burst = 20;
+
+    }
+}
@@ -0,0 +1,33 @@
+package com.java.bankapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.reconciliation")
+public class ReconciliationProperties {
+
+    // Where the mismatch report of every run is written, one file per run id
+    private String directory = System.getProperty("java.io.tmpdir") + "/bankapp-reconciliation";
+
+    // Fork/join workers, each holding one connection while it replays a leaf; 0 uses every core
+    private int parallelism = 0;
+
+    // Width of the account id range one leaf replays in a full run
+    private long leafWidth = 65_536;
+
+    // Touched accounts one leaf replays in an incremental run, bound as one IN list
+    private int leafAccounts = 500;
+
+    // Rows the driver fetches per round trip while replaying
+    private int fetchSize = 10_000;
+
+    // Transaction ids below the high-water mark that an incremental run reads again, covering
+    // ids that were allocated before the mark but committed after it
+    private long incrementalOverlap = 10_000;
+
+}
@@ -0,0 +1,26 @@
+package com.java.bankapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.retry")
+public class RetryProperties {
+
+    private int maxAttempts = 10;
+
+    private long initialBackoffMs = 2;
+
+    private long maxBackoffMs = 100;
+
+    // Optimistic conflicts tolerated before the next attempt takes row locks instead
+    private int pessimisticAfter = 3;
+
+    // Accounts whose conflict statistics are kept; the least valuable are evicted beyond this
+    private long maximumTrackedAccounts = 10_000;
+
+}
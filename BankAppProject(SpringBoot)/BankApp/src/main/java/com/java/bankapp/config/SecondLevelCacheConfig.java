@@ -0,0 +1,77 @@
+package com.java.bankapp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Builds the JCache (Caffeine) manager behind Hibernate's second-level cache, with one cache
+ * per configured region, and hands it to Hibernate. Each context gets its own manager, so
+ * test contexts in the same JVM do not share cached rows.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("bankapp-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        // Unbounded and never expiring, or a cached query result could outlive an update to its tables
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                configuration(new SecondLevelCacheProperties.Region()));
+
+        properties.getRegions().forEach((name, region) ->
+                cacheManager.createCache(name, configuration(region)));
+
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(SecondLevelCacheProperties.Region region) {
+
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate caches immutable disassembled state, so copying on every read and write buys nothing
+        configuration.setStoreByValue(false);
+        configuration.setNativeStatisticsEnabled(true);
+        configuration.setMaximumSize(region.getMaximumSize() != null
+                ? OptionalLong.of(region.getMaximumSize()) : OptionalLong.empty());
+        configuration.setExpireAfterWrite(nanos(region.getExpireAfterWrite()));
+        configuration.setExpireAfterAccess(nanos(region.getExpireAfterAccess()));
+        return configuration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    // Hit and miss counts per region as cache.gets{cache=<region>}
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return registry -> {
+            for (String name : secondLevelCacheManager.getCacheNames()) {
+                Cache<?, ?> cache = secondLevelCacheManager.getCache(name).unwrap(Cache.class);
+                CaffeineCacheMetrics.monitor(registry, cache, name);
+            }
+        };
+    }
+
+    private static OptionalLong nanos(Duration duration) {
+        return duration != null ? OptionalLong.of(duration.toNanos()) : OptionalLong.empty();
+    }
+}
@@ -0,0 +1,33 @@
+package com.java.bankapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.second-level-cache")
+public class SecondLevelCacheProperties {
+
+    // Hibernate region name -> limits; a region Hibernate asks for that is not listed here fails startup
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Region {
+
+        // Unbounded when not set
+        private Long maximumSize;
+
+        private Duration expireAfterWrite;
+
+        private Duration expireAfterAccess;
+
+    }
+}
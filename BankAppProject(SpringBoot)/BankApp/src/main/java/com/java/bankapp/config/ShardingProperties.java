@@ -0,0 +1,39 @@
+package com.java.bankapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    // Shard databases that account balances are spread over by consistent hashing of the account id
+    private int databases = 4;
+
+    // JDBC URL of each shard database; %d is replaced by the shard index
+    private String urlTemplate = "jdbc:h2:mem:bankapp-shard-%d;DB_CLOSE_DELAY=-1";
+
+    private String username = "sa";
+
+    private String password = "";
+
+    // Connection pool size of each shard database
+    private int poolSize = 10;
+
+    // Points every shard owns on the hash ring; more points spread the accounts more evenly
+    private int virtualNodes = 256;
+
+    // A cross-shard transfer left debited but unresolved for this long is finished by recovery
+    private Duration sagaStaleAfter = Duration.ofSeconds(5);
+
+    private long recoveryIntervalMs = 1000;
+
+}
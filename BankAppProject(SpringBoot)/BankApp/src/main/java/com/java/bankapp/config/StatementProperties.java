@@ -0,0 +1,20 @@
+package com.java.bankapp.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.statement")
+public class StatementProperties {
+
+    // Rows the driver fetches per round trip on each statement cursor
+    private int fetchSize = 1000;
+
+    // Bytes encoded before each write to the response stream
+    private int bufferSize = 64 * 1024;
+
+}
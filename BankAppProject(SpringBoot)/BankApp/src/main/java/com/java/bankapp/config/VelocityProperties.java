@@ -0,0 +1,39 @@
+package com.java.bankapp.config;
+
+import com.java.bankapp.entity.AccountType;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.velocity.VelocityWindow;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "bankapp.velocity")
+public class VelocityProperties {
+
+    private boolean enabled = false;
+
+    // Accounts whose windows are kept in memory; the least valuable are evicted beyond this
+    private long maximumAccounts = 2_000_000;
+
+    // Outgoing limits per account type and window; types without limits are not tracked
+    private Map<AccountType, Map<VelocityWindow, Limit>> limits = new EnumMap<>(AccountType.class);
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        // Most withdrawals and outgoing transfers in the window; 0 means no count limit
+        private int maxCount;
+
+        // Most money moved out in the window; unset means no amount limit
+        private Money maxAmount;
+
+    }
+}
@@ -1,42 +1,112 @@
 package com.java.bankapp.controller;
 
-import com.java.bankapp.entity.Account;
+import com.java.bankapp.dto.AccountContentionDTO;
+import com.java.bankapp.dto.AccountDTO;
+import com.java.bankapp.dto.AccountSummaryDTO;
+import com.java.bankapp.dto.BatchTransferResponse;
+import com.java.bankapp.dto.TransferRequest;
+import com.java.bankapp.entity.AccountType;
+import com.java.bankapp.money.Money;
 import com.java.bankapp.service.AccountService;
+import com.java.bankapp.service.AccountSummaryService;
+import com.java.bankapp.retry.OptimisticRetryExecutor;
+import com.java.bankapp.service.BatchTransferService;
+import com.java.bankapp.service.StatementService;
+import com.java.bankapp.service.SubLedgerService;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/accounts")
 public class AccountController {
 
     private final AccountService accountService;
+    private final BatchTransferService batchTransferService;
+    private final SubLedgerService subLedgerService;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final AccountSummaryService accountSummaryService;
+    private final StatementService statementService;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, BatchTransferService batchTransferService,
+                             SubLedgerService subLedgerService, OptimisticRetryExecutor retryExecutor,
+                             AccountSummaryService accountSummaryService, StatementService statementService) {
         this.accountService = accountService;
+        this.batchTransferService = batchTransferService;
+        this.subLedgerService = subLedgerService;
+        this.retryExecutor = retryExecutor;
+        this.accountSummaryService = accountSummaryService;
+        this.statementService = statementService;
     }
 
     @PostMapping("/create/{customerId}")
-    public Account createAccount(@PathVariable Long customerId) {
-        return accountService.createAccount(customerId);
+    public AccountDTO createAccount(@PathVariable Long customerId,
+                                    @RequestParam(defaultValue = "SAVINGS") AccountType accountType) {
+        return accountService.createAccount(customerId, accountType);
     }
 
     @GetMapping("/{accountId}")
-    public Account getAccount(@PathVariable Long accountId) {
+    public AccountDTO getAccount(@PathVariable Long accountId) {
         return accountService.getAccount(accountId);
     }
 
+    // Streams the whole range as CSV or NDJSON (one JSON object per line) without buffering it
+    @GetMapping("/{accountId}/statement")
+    public ResponseEntity<StreamingResponseBody> getStatement(
+            @PathVariable Long accountId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+
+        statementService.validate(accountId, from, to, format);
+
+        boolean csv = "csv".equalsIgnoreCase(format);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement-" + accountId + "-"
+                        + from + "-" + to + (csv ? ".csv" : ".ndjson") + "\"")
+                .body(out -> statementService.writeStatement(accountId, from, to, format, out));
+    }
+
+    @GetMapping("/{accountId}/summary")
+    public AccountSummaryDTO getSummary(@PathVariable Long accountId) {
+        return accountSummaryService.getSummary(accountId);
+    }
+
+    // Recomputes every account summary from the Transaction table; run while writes are paused
+    @PostMapping("/summary/rebuild")
+    public int rebuildSummaries() {
+        return accountSummaryService.rebuild();
+    }
+
+    @GetMapping("/customer/{customerId}")
+    public List<AccountDTO> getAccountsByCustomer(@PathVariable Long customerId) {
+        return accountService.getAccountsByCustomer(customerId);
+    }
+
+    @GetMapping("/number/{accountNumber}")
+    public AccountDTO getAccountByNumber(@PathVariable String accountNumber) {
+        return accountService.getAccountByNumber(accountNumber);
+    }
+
     @PostMapping("/deposit")
     public void deposit(@RequestParam Long accountId,
-                        @RequestParam BigDecimal amount) {
+                        @RequestParam Money amount) {
 
         accountService.deposit(accountId, amount);
     }
 
     @PostMapping("/withdraw")
     public void withdraw(@RequestParam Long accountId,
-                         @RequestParam BigDecimal amount) {
+                         @RequestParam Money amount) {
 
         accountService.withdraw(accountId, amount);
     }
@@ -44,8 +114,25 @@ public class AccountController {
     @PostMapping("/transfer")
     public void transfer(@RequestParam Long fromAccountId,
                          @RequestParam Long toAccountId,
-                         @RequestParam BigDecimal amount) {
+                         @RequestParam Money amount) {
 
         accountService.transfer(fromAccountId, toAccountId, amount);
     }
+
+    @PostMapping("/transfers/batch")
+    public BatchTransferResponse transferBatch(@RequestBody List<TransferRequest> requests) {
+        return batchTransferService.transferBatch(requests);
+    }
+
+    @PostMapping("/{accountId}/shards")
+    public void enableSharding(@PathVariable Long accountId,
+                               @RequestParam int count) {
+
+        subLedgerService.enableSharding(accountId, count);
+    }
+
+    @GetMapping("/contention")
+    public List<AccountContentionDTO> getContention(@RequestParam(defaultValue = "20") int top) {
+        return retryExecutor.hottestAccounts(top);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.java.bankapp.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.java.bankapp.dto.AccountDTO;
+import com.java.bankapp.dto.CacheStatsDTO;
+import com.java.bankapp.dto.CustomerDTO;
+
+import org.springframework.web.bind.annotation.*;
+
+import javax.cache.CacheManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/cache")
+public class CacheController {
+
+    private final Cache<Long, AccountDTO> accountCache;
+    private final Cache<Long, CustomerDTO> customerCache;
+    private final CacheManager secondLevelCacheManager;
+
+    public CacheController(Cache<Long, AccountDTO> accountCache, Cache<Long, CustomerDTO> customerCache,
+                           CacheManager secondLevelCacheManager) {
+        this.accountCache = accountCache;
+        this.customerCache = customerCache;
+        this.secondLevelCacheManager = secondLevelCacheManager;
+    }
+
+    @GetMapping("/stats")
+    public Map<String, CacheStatsDTO> getStats() {
+
+        Map<String, CacheStatsDTO> stats = new LinkedHashMap<>();
+        stats.put("accounts", toDTO(accountCache));
+        stats.put("customers", toDTO(customerCache));
+
+        // Hibernate second-level cache regions
+        for (String region : secondLevelCacheManager.getCacheNames()) {
+            stats.put("l2." + region, toDTO(secondLevelCacheManager.getCache(region).unwrap(Cache.class)));
+        }
+        return stats;
+    }
+
+    private CacheStatsDTO toDTO(Cache<?, ?> cache) {
+
+        CacheStats stats = cache.stats();
+
+        CacheStatsDTO dto = new CacheStatsDTO();
+        dto.setSize(cache.estimatedSize());
+        dto.setHitCount(stats.hitCount());
+        dto.setMissCount(stats.missCount());
+        dto.setHitRate(stats.hitRate());
+        dto.setEvictionCount(stats.evictionCount());
+        return dto;
+    }
+}
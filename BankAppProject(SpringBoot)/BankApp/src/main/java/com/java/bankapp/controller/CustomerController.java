@@ -1,10 +1,13 @@
 package com.java.bankapp.controller;
 
 import com.java.bankapp.dto.CustomerDTO;
+import com.java.bankapp.dto.ImportResult;
+import com.java.bankapp.service.CustomerImportService;
 import com.java.bankapp.service.CustomerService;
 
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -12,9 +15,11 @@ import java.util.List;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final CustomerImportService customerImportService;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, CustomerImportService customerImportService) {
         this.customerService = customerService;
+        this.customerImportService = customerImportService;
     }
 
     @PostMapping
@@ -22,6 +27,13 @@ public class CustomerController {
         return customerService.createCustomer(customerDTO);
     }
 
+    @PostMapping("/import")
+    public ImportResult importCustomers(InputStream body,
+                                        @RequestParam(defaultValue = "csv") String format,
+                                        @RequestParam(required = false) String jobId) {
+        return customerImportService.importCustomers(body, format, jobId);
+    }
+
     @GetMapping("/{id}")
     public CustomerDTO getCustomer(@PathVariable Long id) {
         return customerService.getCustomerById(id);
@@ -0,0 +1,27 @@
+package com.java.bankapp.controller;
+
+import com.java.bankapp.dto.InterestRunDTO;
+import com.java.bankapp.service.InterestService;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/interest")
+public class InterestController {
+
+    private final InterestService interestService;
+
+    public InterestController(InterestService interestService) {
+        this.interestService = interestService;
+    }
+
+    @PostMapping("/accrue")
+    public InterestRunDTO accrue(@RequestParam(required = false)
+                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        return interestService.accrueInterest(date != null ? date : LocalDate.now());
+    }
+}
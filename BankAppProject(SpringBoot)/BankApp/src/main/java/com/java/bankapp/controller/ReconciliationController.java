@@ -0,0 +1,23 @@
+package com.java.bankapp.controller;
+
+import com.java.bankapp.dto.ReconciliationRunDTO;
+import com.java.bankapp.service.ReconciliationService;
+
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/reconciliation")
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    public ReconciliationController(ReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    @PostMapping("/run")
+    public ReconciliationRunDTO run(@RequestParam(defaultValue = "false") boolean incremental) {
+
+        return reconciliationService.reconcile(incremental);
+    }
+}
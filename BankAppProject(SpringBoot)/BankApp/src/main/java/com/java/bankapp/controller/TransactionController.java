@@ -1,12 +1,10 @@
 package com.java.bankapp.controller;
 
-import com.java.bankapp.entity.Transaction;
+import com.java.bankapp.dto.TransactionPageDTO;
 import com.java.bankapp.service.TransactionService;
 
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/transactions")
 public class TransactionController {
@@ -18,7 +16,9 @@ public class TransactionController {
     }
 
     @GetMapping("/{accountId}")
-    public List<Transaction> getTransactionsByAccount(@PathVariable Long accountId) {
-        return transactionService.getTransactionsByAccount(accountId);
+    public TransactionPageDTO getTransactionsByAccount(@PathVariable Long accountId,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "50") int size) {
+        return transactionService.getTransactionsByAccount(accountId, cursor, size);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package com.java.bankapp.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class AccountContentionDTO {
+
+    private Long accountId;
+    private long conflicts;
+    private long retries;
+    private long pessimisticFallbacks;
+
+}
@@ -1,18 +1,33 @@
 package com.java.bankapp.dto;
 
+import com.java.bankapp.entity.AccountStatus;
+import com.java.bankapp.entity.AccountType;
+import com.java.bankapp.money.Money;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
-
 @Getter
 @Setter
+@NoArgsConstructor
 public class AccountDTO {
 
     private Long id;
     private String accountNumber;
-    private BigDecimal balance;
+    private Money balance;
     private String accountType;
     private String status;
 
-}
\ No newline at end of file
+    // Used by the JPQL constructor projection in AccountRepository
+    public AccountDTO(Long id, String accountNumber, Money balance, Long shardMinorUnits,
+                      AccountType accountType, AccountStatus status) {
+        this.id = id;
+        this.accountNumber = accountNumber;
+        this.balance = shardMinorUnits != null && balance != null
+                ? balance.plus(Money.ofMinor(shardMinorUnits))
+                : balance;
+        this.accountType = accountType != null ? accountType.name() : null;
+        this.status = status != null ? status.name() : null;
+    }
+
+}
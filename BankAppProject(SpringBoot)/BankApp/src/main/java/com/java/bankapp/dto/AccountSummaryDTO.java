@@ -0,0 +1,23 @@
+package com.java.bankapp.dto;
+
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.money.Money;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+public class AccountSummaryDTO {
+
+    private Long accountId;
+    private Money totalIn;
+    private Money totalOut;
+    private long transactionCount;
+    private LocalDateTime lastActivityAt;
+    private Map<TransactionType, TypeSummaryDTO> byType = new EnumMap<>(TransactionType.class);
+
+}
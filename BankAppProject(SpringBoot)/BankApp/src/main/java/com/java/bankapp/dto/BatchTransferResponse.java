@@ -0,0 +1,19 @@
+package com.java.bankapp.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BatchTransferResponse {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private long elapsedMillis;
+    private double transfersPerSecond;
+    private List<TransferResult> results;
+
+}
@@ -0,0 +1,18 @@
+package com.java.bankapp.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ImportResult {
+
+    private String jobId;
+    private long resumedAfterLine;
+    private long linesRead;
+    private long imported;
+    private long rejected;
+    private String rejectFile;
+    private long elapsedMillis;
+
+}
@@ -0,0 +1,19 @@
+package com.java.bankapp.dto;
+
+import com.java.bankapp.money.Money;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+public class InterestRunDTO {
+
+    private LocalDate accrualDate;
+    private int partitions;
+    private long accountsAccrued;
+    private Money totalInterest;
+    private long elapsedMillis;
+
+}
@@ -0,0 +1,21 @@
+package com.java.bankapp.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ReconciliationRunDTO {
+
+    private String runId;
+    private boolean incremental;
+    private long fromTransactionId;
+    private long highWaterMark;
+    private long leaves;
+    private long accountsChecked;
+    private long transactionsReplayed;
+    private long mismatches;
+    private String reportFile;
+    private long elapsedMillis;
+
+}
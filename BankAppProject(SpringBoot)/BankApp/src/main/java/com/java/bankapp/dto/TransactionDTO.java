@@ -1,9 +1,9 @@
 package com.java.bankapp.dto;
 
+import com.java.bankapp.money.Money;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
@@ -12,7 +12,7 @@ public class TransactionDTO {
 
     private Long id;
 
-    private BigDecimal amount;
+    private Money amount;
 
     private String transactionType;
 
@@ -0,0 +1,17 @@
+package com.java.bankapp.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class TransactionPageDTO {
+
+    private List<TransactionDTO> transactions;
+
+    // Pass back as ?cursor= to fetch the next (older) page; null on the last page
+    private String nextCursor;
+
+}
@@ -1,16 +1,15 @@
 package com.java.bankapp.dto;
 
+import com.java.bankapp.money.Money;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.math.BigDecimal;
-
 @Getter
 @Setter
 public class TransferRequest {
 
     private Long fromAccountId;
     private Long toAccountId;
-    private BigDecimal amount;
+    private Money amount;
 
 }
\ No newline at end of file
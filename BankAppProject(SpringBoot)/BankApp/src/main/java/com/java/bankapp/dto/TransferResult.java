@@ -0,0 +1,18 @@
+package com.java.bankapp.dto;
+
+import com.java.bankapp.money.Money;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TransferResult {
+
+    private int index;
+    private Long fromAccountId;
+    private Long toAccountId;
+    private Money amount;
+    private boolean success;
+    private String error;
+
+}
@@ -0,0 +1,18 @@
+package com.java.bankapp.dto;
+
+import com.java.bankapp.money.Money;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class TypeSummaryDTO {
+
+    private Money totalIn;
+    private Money totalOut;
+    private long transactionCount;
+    private LocalDateTime lastActivityAt;
+
+}
@@ -2,20 +2,26 @@ package com.java.bankapp.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.java.bankapp.id.PooledSequence;
+import com.java.bankapp.money.Money;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "account")
 @Getter
 @Setter
 public class Account {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "account_seq")
     private Long id;
 
     @Column(unique = true)
@@ -24,11 +30,20 @@ public class Account {
     @Enumerated(EnumType.STRING)
     private AccountType accountType;
 
-    private BigDecimal balance;
+    private Money balance;
 
     @Enumerated(EnumType.STRING)
     private AccountStatus status;
 
+    @Version
+    private Long version;
+
+    // Number of AccountShard rows holding this account's balance; 0 when not sharded
+    private int shardCount;
+
+    // Last day interest was credited, so a rerun of the same day skips the account
+    private LocalDate interestAccruedOn;
+
     @ManyToOne
     @JoinColumn(name = "customer_id")
     @JsonBackReference("customer-account")
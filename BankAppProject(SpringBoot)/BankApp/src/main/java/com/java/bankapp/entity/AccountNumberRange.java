@@ -0,0 +1,22 @@
+package com.java.bankapp.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// High-water mark of the account number serials reserved for one prefix
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+public class AccountNumberRange {
+
+    @Id
+    private String prefix;
+
+    // First serial not yet handed to any allocator
+    private long nextSerial;
+
+}
@@ -0,0 +1,27 @@
+package com.java.bankapp.entity;
+
+import com.java.bankapp.id.PooledSequence;
+import com.java.bankapp.money.Money;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"account_id", "shard_index"}))
+public class AccountShard {
+
+    @Id
+    @PooledSequence(name = "account_shard_seq")
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "shard_index", nullable = false)
+    private int shardIndex;
+
+    private Money balance;
+
+}
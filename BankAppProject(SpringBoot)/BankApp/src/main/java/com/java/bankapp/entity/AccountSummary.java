@@ -0,0 +1,36 @@
+package com.java.bankapp.entity;
+
+import com.java.bankapp.money.Money;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Running totals of one account's transactions of one type, kept in step with the Transaction table
+@Getter
+@Setter
+@Entity
+@IdClass(AccountSummaryId.class)
+public class AccountSummary {
+
+    @Id
+    private Long accountId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+
+    private Money totalIn;
+
+    private Money totalOut;
+
+    private long transactionCount;
+
+    private LocalDateTime lastActivityAt;
+
+}
@@ -0,0 +1,22 @@
+package com.java.bankapp.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class AccountSummaryId implements Serializable {
+
+    private Long accountId;
+
+    private TransactionType transactionType;
+
+}
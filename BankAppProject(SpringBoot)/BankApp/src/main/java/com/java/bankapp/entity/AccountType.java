@@ -1,7 +1,6 @@
 package com.java.bankapp.entity;
 
 public enum AccountType {
-    ACTIVE,
-    BLOCKED,
-    CLOSED
+    SAVINGS,
+    CURRENT
 }
@@ -1,11 +1,14 @@
 package com.java.bankapp.entity;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.java.bankapp.id.PooledSequence;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -13,12 +16,14 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customer")
 @NoArgsConstructor
 @AllArgsConstructor
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "customer_seq")
     private Long Id;
 
     private String firstName;
@@ -34,6 +39,7 @@ public class Customer {
 
 
     @OneToMany(mappedBy = "customer")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customer-accounts")
     @JsonManagedReference("customer-account")
     private List<Account> accounts;
 }
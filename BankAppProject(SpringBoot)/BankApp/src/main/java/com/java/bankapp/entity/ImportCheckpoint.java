@@ -0,0 +1,28 @@
+package com.java.bankapp.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+public class ImportCheckpoint {
+
+    @Id
+    private String jobId;
+
+    private long lastLine;
+    private long imported;
+    private long rejected;
+
+    // Length of the reject file covered by the committed chunks
+    private long rejectBytes;
+
+    public ImportCheckpoint(String jobId) {
+        this.jobId = jobId;
+    }
+}
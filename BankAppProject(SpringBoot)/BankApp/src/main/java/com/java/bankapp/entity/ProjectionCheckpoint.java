@@ -0,0 +1,23 @@
+package com.java.bankapp.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+public class ProjectionCheckpoint {
+
+    @Id
+    private String name;
+
+    private long position;
+
+    public ProjectionCheckpoint(String name) {
+        this.name = name;
+    }
+}
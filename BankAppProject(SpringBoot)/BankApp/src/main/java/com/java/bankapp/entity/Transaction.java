@@ -1,37 +1,42 @@
 package com.java.bankapp.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.java.bankapp.id.PooledSequence;
+import com.java.bankapp.money.Money;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
 @Setter
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_transaction_from_history", columnList = "from_account_id, transactionDate, id"),
+        @Index(name = "idx_transaction_to_history", columnList = "to_account_id, transactionDate, id")
+})
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequence(name = "transaction_seq")
     private Long id;
 
     @Enumerated(EnumType.STRING)
     private TransactionType transactionType;
 
-    private BigDecimal amount;
+    private Money amount;
 
     private String description;
 
     private LocalDateTime transactionDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "from_account_id")
     @JsonBackReference(value = "account-transaction-from")
     private Account fromAccount;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "to_account_id")
     @JsonBackReference(value = "account-transaction-to")
     private Account toAccount;
@@ -3,5 +3,6 @@ package com.java.bankapp.entity;
 public enum TransactionType {
     DEPOSIT,
     WITHDRAW,
-    TRANSFER
+    TRANSFER,
+    INTEREST
 }
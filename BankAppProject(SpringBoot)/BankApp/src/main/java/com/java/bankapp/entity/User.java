@@ -1,12 +1,13 @@
 package com.java.bankapp.entity;
 
+import com.java.bankapp.id.PooledSequence;
 import jakarta.persistence.*;
 
     @Entity
     public class User {
 
         @Id
-        @GeneratedValue
+        @PooledSequence(name = "user_seq")
         private Long id;
 
         private String username;
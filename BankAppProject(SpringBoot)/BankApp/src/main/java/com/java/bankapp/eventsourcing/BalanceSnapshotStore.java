@@ -0,0 +1,182 @@
+package com.java.bankapp.eventsourcing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot files of every account balance as of one journal sequence, named
+ * {@code snapshot-<sequence>.bin}. A file is a header (magic, version, sequence, count),
+ * {@code count} pairs of account id and balance, and a CRC32 of everything before it. It is
+ * written to a temporary file and moved into place, and a snapshot that fails its checksum
+ * is skipped in favour of the one before it.
+ */
+public class BalanceSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceSnapshotStore.class);
+
+    private static final int MAGIC = 0x534E4150;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int PAIR_SIZE = 16;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final Path directory;
+    private final int retained;
+
+    public BalanceSnapshotStore(Path directory, int retained) {
+        this.directory = directory;
+        this.retained = Math.max(1, retained);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create snapshot directory " + directory, e);
+        }
+    }
+
+    public Path write(long sequence, BalanceTable[] partitions) {
+
+        long count = 0;
+        for (BalanceTable partition : partitions) {
+            count += partition.size();
+        }
+
+        Path target = directory.resolve(fileName(sequence));
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+            CRC32 crc = new CRC32();
+
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(sequence).putLong(count);
+            for (BalanceTable partition : partitions) {
+                partition.forEach((accountId, minorUnits) -> {
+                    if (buffer.remaining() < PAIR_SIZE) {
+                        drain(channel, buffer, crc);
+                    }
+                    buffer.putLong(accountId).putLong(minorUnits);
+                });
+            }
+            drain(channel, buffer, crc);
+
+            buffer.putInt((int) crc.getValue()).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write snapshot " + target, e);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            prune();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not publish snapshot " + target, e);
+        }
+        return target;
+    }
+
+    /**
+     * Adds the newest intact snapshot into {@code partitions} and returns its sequence, or 0
+     * when there is none.
+     */
+    public long loadLatest(BalanceTable[] partitions) {
+
+        for (Path file : snapshots()) {
+            try {
+                return load(file, partitions);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Skipping unreadable snapshot {}: {}", file, e.getMessage());
+                for (int i = 0; i < partitions.length; i++) {
+                    partitions[i] = new BalanceTable(16);
+                }
+            }
+        }
+        return 0;
+    }
+
+    private long load(Path file, BalanceTable[] partitions) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.limit() < HEADER_SIZE + 4 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IllegalStateException("not a balance snapshot");
+            }
+            long sequence = buffer.getLong(8);
+            long count = buffer.getLong(16);
+            if (buffer.limit() != HEADER_SIZE + count * PAIR_SIZE + 4) {
+                throw new IllegalStateException("truncated");
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().limit(buffer.limit() - 4));
+            if ((int) crc.getValue() != buffer.getInt(buffer.limit() - 4)) {
+                throw new IllegalStateException("checksum mismatch");
+            }
+
+            int position = HEADER_SIZE;
+            for (long i = 0; i < count; i++, position += PAIR_SIZE) {
+                long accountId = buffer.getLong(position);
+                partitions[BalanceTable.partitionOf(accountId, partitions.length)]
+                        .add(accountId, buffer.getLong(position + 8));
+            }
+            return sequence;
+        }
+    }
+
+    private void drain(FileChannel channel, ByteBuffer buffer, CRC32 crc) {
+
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write snapshot", e);
+        }
+        buffer.clear();
+    }
+
+    private void prune() throws IOException {
+
+        List<Path> snapshots = snapshots();
+        for (Path old : snapshots.subList(Math.min(retained, snapshots.size()), snapshots.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    // Newest first; the zero-padded sequence makes name order sequence order
+    private List<Path> snapshots() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(PREFIX)
+                            && path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list snapshots in " + directory, e);
+        }
+    }
+
+    private static String fileName(long sequence) {
+        return String.format("%s%020d%s", PREFIX, sequence, SUFFIX);
+    }
+}
@@ -0,0 +1,113 @@
+package com.java.bankapp.eventsourcing;
+
+/**
+ * Open-addressing map from account id to a balance in minor units, so replaying events
+ * allocates nothing per event. Id 0 marks an empty slot; account ids start at 1 and the
+ * journal writes 0 for an absent account.
+ */
+public final class BalanceTable {
+
+    @FunctionalInterface
+    public interface BalanceConsumer {
+        void accept(long accountId, long minorUnits);
+    }
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    public BalanceTable(int expectedAccounts) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedAccounts * 2) - 1) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    // A different multiplier from partitionOf, so a partition's ids do not pile up in a few slots
+    private static int slot(long accountId, int mask) {
+        return (int) ((accountId * 0xC2B2AE3D27D4EB4FL) >>> 32) & mask;
+    }
+
+    public static int partitionOf(long accountId, int partitions) {
+        return (int) (((accountId * 0x9E3779B97F4A7C15L) >>> 33) % partitions);
+    }
+
+    public void add(long accountId, long minorUnits) {
+
+        int slot = slot(accountId, mask);
+        while (true) {
+            long key = keys[slot];
+            if (key == accountId) {
+                values[slot] += minorUnits;
+                return;
+            }
+            if (key == 0) {
+                keys[slot] = accountId;
+                values[slot] = minorUnits;
+                if (++size * 2 > keys.length) {
+                    grow();
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public long get(long accountId) {
+
+        int slot = slot(accountId, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == accountId) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    public boolean contains(long accountId) {
+
+        int slot = slot(accountId, mask);
+        while (keys[slot] != 0) {
+            if (keys[slot] == accountId) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(BalanceConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private void grow() {
+
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldKeys.length * 2];
+        mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i], mask);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.java.bankapp.eventsourcing;
+
+import com.java.bankapp.journal.TransactionJournal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Folds journal records into per-partition {@link BalanceTable}s. Replay is a sum, so order
+ * does not matter: the sequence range is cut into contiguous slices that are scanned in
+ * parallel, each into its own partitioned tables, and then every account partition merges
+ * its slices in parallel. A slice is never smaller than {@link #MIN_SLICE} records, so
+ * short replays stay on one thread and skip the merge.
+ */
+public class EventReplayer {
+
+    static final long MIN_SLICE = 1 << 20;
+
+    public record Rebuild(BalanceTable[] partitions, long snapshotSequence, long lastSequence) {
+
+        public long eventsReplayed() {
+            return lastSequence - snapshotSequence;
+        }
+
+        public long accounts() {
+            long accounts = 0;
+            for (BalanceTable partition : partitions) {
+                accounts += partition.size();
+            }
+            return accounts;
+        }
+    }
+
+    private final TransactionJournal journal;
+    private final int partitions;
+    private final long minSlice;
+
+    public EventReplayer(TransactionJournal journal, int partitions) {
+        this(journal, partitions, MIN_SLICE);
+    }
+
+    EventReplayer(TransactionJournal journal, int partitions, long minSlice) {
+        this.journal = journal;
+        this.partitions = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        this.minSlice = minSlice;
+    }
+
+    public BalanceTable[] newPartitions() {
+        BalanceTable[] tables = new BalanceTable[partitions];
+        for (int i = 0; i < partitions; i++) {
+            tables[i] = new BalanceTable(16);
+        }
+        return tables;
+    }
+
+    /**
+     * Loads the newest snapshot and replays every journal record after it.
+     */
+    public Rebuild rebuild(BalanceSnapshotStore snapshots) {
+
+        BalanceTable[] tables = newPartitions();
+        long snapshotSequence = snapshots.loadLatest(tables);
+        long lastSequence = journal.getLastSequence();
+
+        if (snapshotSequence > lastSequence) {
+            throw new RuntimeException("Snapshot at sequence " + snapshotSequence
+                    + " is ahead of the journal, which ends at " + lastSequence);
+        }
+
+        replay(tables, snapshotSequence + 1, lastSequence);
+        return new Rebuild(tables, snapshotSequence, lastSequence);
+    }
+
+    public void replay(BalanceTable[] tables, long fromSequence, long toSequence) {
+
+        long events = toSequence - fromSequence + 1;
+        if (events <= 0) {
+            return;
+        }
+
+        int slices = (int) Math.min(partitions, (events + minSlice - 1) / minSlice);
+        if (slices <= 1) {
+            scan(tables, fromSequence, toSequence);
+            return;
+        }
+
+        BalanceTable[][] local = new BalanceTable[slices][];
+        long width = (events + slices - 1) / slices;
+
+        try (ForkJoinPool pool = new ForkJoinPool(partitions)) {
+            List<Callable<Void>> scans = new ArrayList<>(slices);
+            for (int i = 0; i < slices; i++) {
+                int slice = i;
+                long from = fromSequence + slice * width;
+                long to = Math.min(toSequence, from + width - 1);
+                scans.add(() -> {
+                    local[slice] = newPartitions();
+                    scan(local[slice], from, to);
+                    return null;
+                });
+            }
+            waitFor(pool.invokeAll(scans));
+
+            List<Callable<Void>> merges = new ArrayList<>(partitions);
+            for (int i = 0; i < partitions; i++) {
+                int partition = i;
+                merges.add(() -> {
+                    for (BalanceTable[] slice : local) {
+                        slice[partition].forEach(tables[partition]::add);
+                    }
+                    return null;
+                });
+            }
+            waitFor(pool.invokeAll(merges));
+        }
+    }
+
+    private void scan(BalanceTable[] tables, long fromSequence, long toSequence) {
+
+        int count = tables.length;
+        journal.scan(fromSequence, toSequence, (sequence, fromAccountId, toAccountId, minorUnits) -> {
+            if (fromAccountId != 0) {
+                tables[BalanceTable.partitionOf(fromAccountId, count)].add(fromAccountId, -minorUnits);
+            }
+            if (toAccountId != 0) {
+                tables[BalanceTable.partitionOf(toAccountId, count)].add(toAccountId, minorUnits);
+            }
+        });
+    }
+
+    private static void waitFor(List<Future<Void>> futures) {
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Event replay failed: " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Event replay interrupted", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.java.bankapp.eventsourcing;
+
+import com.java.bankapp.config.EventSourcingProperties;
+import com.java.bankapp.journal.TransactionJournal;
+import com.java.bankapp.ledger.LedgerEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Treats the {@link TransactionJournal} as the source of truth for balances. At startup the
+ * newest snapshot is loaded, the journal records after it are replayed in parallel, and the
+ * result is restored into the {@link LedgerEngine}, which flushes it to the database. In the
+ * background the same projection is kept up to date and written out as a new snapshot, so the
+ * next startup only replays what arrived since.
+ */
+@Component
+@ConditionalOnProperty(name = "bankapp.event-sourcing.enabled", havingValue = "true")
+public class EventSourcedLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSourcedLedger.class);
+
+    private final TransactionJournal journal;
+    private final EventSourcingProperties properties;
+    private final EventReplayer replayer;
+    private final BalanceSnapshotStore snapshots;
+
+    private final BalanceTable[] projection;
+    private long projectedSequence;
+    private long snapshotSequence;
+
+    public EventSourcedLedger(ObjectProvider<LedgerEngine> ledgerEngine,
+                              ObjectProvider<TransactionJournal> journal,
+                              EventSourcingProperties properties) {
+        LedgerEngine engine = ledgerEngine.getIfAvailable();
+        this.journal = journal.getIfAvailable();
+        if (engine == null || this.journal == null) {
+            throw new RuntimeException("Event sourcing needs bankapp.ledger.enabled=true and bankapp.journal.enabled=true");
+        }
+        this.properties = properties;
+        this.replayer = new EventReplayer(this.journal, properties.getReplayPartitions());
+        this.snapshots = new BalanceSnapshotStore(Path.of(properties.getSnapshotDirectory()),
+                properties.getSnapshotsRetained());
+
+        long started = System.nanoTime();
+        EventReplayer.Rebuild rebuild = replayer.rebuild(snapshots);
+        for (BalanceTable partition : rebuild.partitions()) {
+            partition.forEach(engine::restore);
+        }
+
+        this.projection = rebuild.partitions();
+        this.projectedSequence = rebuild.lastSequence();
+        this.snapshotSequence = rebuild.snapshotSequence();
+
+        log.info("Rebuilt {} balances from snapshot {} and {} journal records in {} ms",
+                rebuild.accounts(), rebuild.snapshotSequence(), rebuild.eventsReplayed(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${bankapp.event-sourcing.snapshot-interval-ms:60000}")
+    public synchronized void snapshot() {
+
+        try {
+            long last = journal.getLastSequence();
+            if (last - snapshotSequence < properties.getSnapshotMinEvents()) {
+                return;
+            }
+
+            replayer.replay(projection, projectedSequence + 1, last);
+            projectedSequence = last;
+
+            Path file = snapshots.write(last, projection);
+            snapshotSequence = last;
+            log.info("Wrote balance snapshot {}", file);
+        } catch (RuntimeException e) {
+            log.error("Balance snapshot failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    public synchronized long getSnapshotSequence() {
+        return snapshotSequence;
+    }
+}
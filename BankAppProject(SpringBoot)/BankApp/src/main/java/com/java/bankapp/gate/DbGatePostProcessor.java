@@ -0,0 +1,51 @@
+package com.java.bankapp.gate;
+
+import com.java.bankapp.config.DbGateProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link GatedDataSource} sized to the Hikari pool,
+ * so thousands of virtual-thread requests queue on the gate rather than on the database.
+ */
+@Component
+@ConditionalOnProperty(name = "bankapp.db-gate.enabled", havingValue = "true")
+public class DbGatePostProcessor implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(DbGatePostProcessor.class);
+
+    private final ObjectProvider<DbGateProperties> properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public DbGatePostProcessor(ObjectProvider<DbGateProperties> properties,
+                               ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+        if (!(bean instanceof DataSource dataSource) || bean instanceof GatedDataSource) {
+            return bean;
+        }
+
+        DbGateProperties gate = properties.getObject();
+
+        int permits = gate.getPermits();
+        if (permits <= 0) {
+            permits = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+        }
+
+        log.info("Gating DataSource '{}' at {} concurrent connections", beanName, permits);
+        return new GatedDataSource(dataSource, permits, gate.getAcquireTimeout(), meterRegistry.getObject());
+    }
+}
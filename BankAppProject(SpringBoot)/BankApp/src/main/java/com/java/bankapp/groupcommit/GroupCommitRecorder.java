@@ -0,0 +1,346 @@
+package com.java.bankapp.groupcommit;
+
+import com.java.bankapp.config.GroupCommitProperties;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.id.SequenceIdAllocator;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.summary.AccountSummaryWriter;
+import com.java.bankapp.summary.SummaryDelta;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records transactions asynchronously. Publishers drop rows into a {@link TransactionRing}
+ * and get a future; a single writer thread drains the ring and inserts up to
+ * {@code maxBatchSize} rows per database transaction, waiting at most {@code maxLatency}
+ * for a batch to fill. The future completes with the row id once its batch has committed.
+ * When the ring is full publishers wait up to {@code publishTimeout} and then fail.
+ *
+ * <p>Rows that are never written, because their insert failed or because a publish after
+ * the caller's commit was refused, are counted in {@code bankapp.group.commit.lost}; the
+ * movement they describe has already happened, so they need a summary rebuild or a
+ * reconciliation run. Rows still in the ring once the writer has stopped are counted the
+ * same way, and their futures fail, so no caller waits on a row nobody will write.
+ */
+@Component
+@ConditionalOnProperty(name = "bankapp.group-commit.enabled", havingValue = "true")
+public class GroupCommitRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitRecorder.class);
+
+    private static final String INSERT_TRANSACTION = """
+            insert into transaction (id, transaction_type, amount, description, transaction_date, from_account_id, to_account_id)
+            values (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SequenceIdAllocator idAllocator;
+    private final AccountSummaryWriter summaryWriter;
+
+    private final TransactionRing ring;
+    private final TransactionRing.Batch batch;
+    private final long[] ids;
+    private final long maxLatencyNanos;
+    private final long publishTimeoutNanos;
+
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private final Counter lost;
+
+    private final Thread writer;
+    // Held by whoever drains the ring after the writer has exited, keeping it single-consumer
+    private final ReentrantLock abandonedLock = new ReentrantLock();
+    private volatile boolean writerParked;
+    private volatile boolean running = true;
+
+    public GroupCommitRecorder(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               SequenceIdAllocator idAllocator,
+                               GroupCommitProperties properties,
+                               MeterRegistry meterRegistry,
+                               AccountSummaryWriter summaryWriter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idAllocator = idAllocator;
+        this.summaryWriter = summaryWriter;
+
+        this.ring = new TransactionRing(properties.getRingSize());
+        this.batch = new TransactionRing.Batch(Math.max(1, properties.getMaxBatchSize()));
+        this.ids = new long[batch.capacity()];
+        this.maxLatencyNanos = properties.getMaxLatency().toNanos();
+        this.publishTimeoutNanos = properties.getPublishTimeout().toNanos();
+
+        this.batchSizes = DistributionSummary.builder("bankapp.group.commit.batch.size")
+                .description("Transaction rows inserted per group commit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("bankapp.group.commit.rejected")
+                .description("Publishes that timed out because the ring was full")
+                .register(meterRegistry);
+        this.lost = Counter.builder("bankapp.group.commit.lost")
+                .description("Rows never written although the movement they record happened")
+                .register(meterRegistry);
+        meterRegistry.gauge("bankapp.group.commit.backlog", ring, TransactionRing::size);
+
+        this.writer = Thread.ofPlatform().name("transaction-group-commit").daemon().start(this::run);
+    }
+
+    public CompletableFuture<Long> record(TransactionType type, Long fromAccountId, Long toAccountId,
+                                          Money amount, String description, LocalDateTime transactionDate) {
+
+        if (!running) {
+            throw new RuntimeException("Transaction recorder is stopped");
+        }
+
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        LocalDateTime date = transactionDate != null ? transactionDate : LocalDateTime.now();
+
+        long deadline = 0;
+        while (!ring.tryPublish(type, fromAccountId, toAccountId, amount.minorUnits(), description, date, future)) {
+            if (!running) {
+                throw new RuntimeException("Transaction recorder is stopped");
+            }
+            if (deadline == 0) {
+                deadline = System.nanoTime() + publishTimeoutNanos;
+            } else if (System.nanoTime() - deadline > 0) {
+                rejected.increment();
+                throw new RuntimeException("Transaction recorder is full, please retry");
+            }
+            LockSupport.parkNanos(50_000);
+        }
+
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        // The recorder stopped while this row was being published and the writer may have missed it
+        if (!running && !writer.isAlive()) {
+            failAbandoned();
+        }
+        return future;
+    }
+
+    /**
+     * Publishes once the caller's transaction has committed, so a rolled-back movement leaves
+     * no row, and publishes at once without a transaction. A publish refused after the commit
+     * cannot fail the caller any more; it fails the returned future and counts as lost.
+     */
+    public CompletableFuture<Long> recordAfterCommit(TransactionType type, Long fromAccountId, Long toAccountId,
+                                                     Money amount, String description, LocalDateTime transactionDate) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return record(type, fromAccountId, toAccountId, amount, description, transactionDate);
+        }
+
+        CompletableFuture<Long> recorded = new CompletableFuture<>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    record(type, fromAccountId, toAccountId, amount, description, transactionDate)
+                            .whenComplete((id, failure) -> {
+                                if (failure != null) {
+                                    recorded.completeExceptionally(failure);
+                                } else {
+                                    recorded.complete(id);
+                                }
+                            });
+                } catch (RuntimeException e) {
+                    lost.increment();
+                    log.error("Committed {} of {} from {} to {} was not recorded: {}",
+                            type, amount, fromAccountId, toAccountId, e.getMessage());
+                    recorded.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    recorded.completeExceptionally(new RuntimeException("Transaction rolled back, nothing recorded"));
+                }
+            }
+        });
+        return recorded;
+    }
+
+    public int getBacklog() {
+        return ring.size();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(10_000);
+        if (!writer.isAlive()) {
+            failAbandoned();
+        }
+    }
+
+    private void failAbandoned() {
+
+        abandonedLock.lock();
+        try {
+            RuntimeException stopped = new RuntimeException("Transaction recorder is stopped");
+            while (ring.drainTo(batch) > 0) {
+                log.error("Transaction recorder stopped, {} rows lost", batch.size);
+                lost.increment(batch.size);
+                for (int i = 0; i < batch.size; i++) {
+                    batch.futures[i].completeExceptionally(stopped);
+                }
+                batch.clear();
+            }
+        } finally {
+            abandonedLock.unlock();
+        }
+    }
+
+    private void run() {
+
+        while (running || ring.size() > 0) {
+
+            if (ring.drainTo(batch) == 0) {
+                park(maxLatencyNanos);
+                continue;
+            }
+
+            long deadline = System.nanoTime() + maxLatencyNanos;
+            while (batch.size < batch.capacity() && running) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                if (ring.drainTo(batch) == 0) {
+                    park(remaining);
+                }
+            }
+
+            try {
+                write();
+            } catch (RuntimeException e) {
+                log.error("Group commit writer failed, {} rows lost: {}", batch.size, e.getMessage());
+                lost.increment(batch.size);
+                for (int i = 0; i < batch.size; i++) {
+                    batch.futures[i].completeExceptionally(e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void park(long nanos) {
+        writerParked = true;
+        if (ring.size() == 0 && running) {
+            LockSupport.parkNanos(nanos);
+        }
+        writerParked = false;
+    }
+
+    private void write() {
+
+        int size = batch.size;
+        for (int i = 0; i < size; i++) {
+            ids[i] = idAllocator.nextId("transaction_seq");
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_TRANSACTION, new BatchSetter(size));
+
+                SummaryDelta summary = new SummaryDelta();
+                for (int i = 0; i < size; i++) {
+                    summary.add(batch.types[i], batch.fromAccountIds[i], batch.toAccountIds[i],
+                            batch.amounts[i], batch.transactionDates[i]);
+                }
+                summaryWriter.apply(summary);
+            });
+        } catch (RuntimeException e) {
+            // One bad row (e.g. a missing account) must not fail the rows grouped with it
+            log.warn("Group commit of {} rows failed, retrying row by row: {}", size, e.getMessage());
+            writeOneByOne(size);
+            return;
+        }
+
+        batchSizes.record(size);
+        for (int i = 0; i < size; i++) {
+            batch.futures[i].complete(ids[i]);
+        }
+    }
+
+    private void writeOneByOne(int size) {
+        for (int i = 0; i < size; i++) {
+            int row = i;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(INSERT_TRANSACTION, ps -> bind(ps, row));
+                    summaryWriter.apply(new SummaryDelta().add(batch.types[row], batch.fromAccountIds[row],
+                            batch.toAccountIds[row], batch.amounts[row], batch.transactionDates[row]));
+                });
+                batch.futures[row].complete(ids[row]);
+            } catch (RuntimeException e) {
+                lost.increment();
+                log.error("Group commit row {} of {} from {} to {} lost: {}", batch.types[row], batch.amounts[row],
+                        batch.fromAccountIds[row], batch.toAccountIds[row], e.getMessage());
+                batch.futures[row].completeExceptionally(e);
+            }
+        }
+    }
+
+    private void bind(PreparedStatement ps, int i) throws SQLException {
+        ps.setLong(1, ids[i]);
+        ps.setString(2, batch.types[i].name());
+        ps.setLong(3, batch.amounts[i]);
+        ps.setString(4, batch.descriptions[i]);
+        ps.setTimestamp(5, Timestamp.valueOf(batch.transactionDates[i]));
+        setNullableLong(ps, 6, batch.fromAccountIds[i]);
+        setNullableLong(ps, 7, batch.toAccountIds[i]);
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private final class BatchSetter implements BatchPreparedStatementSetter {
+
+        private final int size;
+
+        private BatchSetter(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            bind(ps, i);
+        }
+
+        @Override
+        public int getBatchSize() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.java.bankapp.groupcommit;
+
+import com.java.bankapp.entity.TransactionType;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed ring of pre-allocated slots between many publishers and one consumer. A publisher
+ * claims the next sequence with a CAS, fills the slot it now owns alone and publishes it
+ * with a volatile write of the slot's sequence. The consumer copies published slots out in
+ * sequence order and only then frees them, so a claim fails rather than overwrite a row
+ * that has not been drained.
+ */
+class TransactionRing {
+
+    private static final class Slot {
+        volatile long sequence = -1;
+        TransactionType type;
+        Long fromAccountId;
+        Long toAccountId;
+        long amount;
+        String description;
+        LocalDateTime transactionDate;
+        CompletableFuture<Long> future;
+    }
+
+    /** Reusable consumer-side copy of one drained batch. */
+    static final class Batch {
+
+        final TransactionType[] types;
+        final Long[] fromAccountIds;
+        final Long[] toAccountIds;
+        final long[] amounts;
+        final String[] descriptions;
+        final LocalDateTime[] transactionDates;
+        final CompletableFuture<Long>[] futures;
+        int size;
+
+        @SuppressWarnings("unchecked")
+        Batch(int capacity) {
+            types = new TransactionType[capacity];
+            fromAccountIds = new Long[capacity];
+            toAccountIds = new Long[capacity];
+            amounts = new long[capacity];
+            descriptions = new String[capacity];
+            transactionDates = new LocalDateTime[capacity];
+            futures = (CompletableFuture<Long>[]) new CompletableFuture<?>[capacity];
+        }
+
+        int capacity() {
+            return types.length;
+        }
+
+        void clear() {
+            Arrays.fill(futures, 0, size, null);
+            Arrays.fill(descriptions, 0, size, null);
+            size = 0;
+        }
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+
+    TransactionRing(int requestedSize) {
+        int size = Integer.highestOneBit(Math.max(2, requestedSize - 1)) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    int size() {
+        return (int) (claimed.get() - consumed);
+    }
+
+    boolean tryPublish(TransactionType type, Long fromAccountId, Long toAccountId, long amount,
+                       String description, LocalDateTime transactionDate, CompletableFuture<Long> future) {
+
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.type = type;
+        slot.fromAccountId = fromAccountId;
+        slot.toAccountId = toAccountId;
+        slot.amount = amount;
+        slot.description = description;
+        slot.transactionDate = transactionDate;
+        slot.future = future;
+        slot.sequence = sequence;
+        return true;
+    }
+
+    // Single consumer only; stops at the first claimed but not yet published slot
+    int drainTo(Batch batch) {
+
+        long next = consumed;
+        int drained = 0;
+
+        while (batch.size < batch.capacity()) {
+            Slot slot = slots[(int) (next & mask)];
+            if (slot.sequence != next) {
+                break;
+            }
+
+            int i = batch.size++;
+            batch.types[i] = slot.type;
+            batch.fromAccountIds[i] = slot.fromAccountId;
+            batch.toAccountIds[i] = slot.toAccountId;
+            batch.amounts[i] = slot.amount;
+            batch.descriptions[i] = slot.description;
+            batch.transactionDates[i] = slot.transactionDate;
+            batch.futures[i] = slot.future;
+
+            slot.future = null;
+            slot.description = null;
+            next++;
+            drained++;
+        }
+
+        consumed = next;
+        return drained;
+    }
+}
@@ -0,0 +1,159 @@
+package com.java.bankapp.id;
+
+import com.java.bankapp.config.AccountNumberProperties;
+import com.java.bankapp.entity.AccountType;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out account numbers of the form {@code <prefix><serial><Luhn check digit>}. Serials
+ * are reserved from {@code account_number_range} a block at a time in their own committed
+ * transaction, so a number is never reused after a restart; within a block they come from an
+ * atomic counter per prefix and callers only meet a lock when the block runs out. That lock
+ * is a {@link ReentrantLock} rather than a monitor, so a virtual thread waiting out the
+ * reservation round trip does not pin its carrier.
+ */
+@Component
+public class AccountNumberAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountNumberProperties properties;
+
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    private record Block(AtomicLong next, long end) {
+    }
+
+    private final class Slot {
+
+        private final String prefix;
+        private final ReentrantLock refillLock = new ReentrantLock();
+        private volatile Block block;
+
+        private Slot(String prefix) {
+            this.prefix = prefix;
+        }
+
+        private void refill(Block exhausted) {
+            refillLock.lock();
+            try {
+                if (block == exhausted) {
+                    block = reserve(prefix);
+                }
+            } finally {
+                refillLock.unlock();
+            }
+        }
+    }
+
+    public AccountNumberAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  AccountNumberProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+    }
+
+    public String next(AccountType accountType) {
+
+        String prefix = properties.getPrefixes().get(accountType);
+        if (prefix == null || !prefix.matches("\\d+")) {
+            throw new RuntimeException("No numeric account number prefix configured for " + accountType);
+        }
+
+        Slot slot = slots.computeIfAbsent(prefix, Slot::new);
+        while (true) {
+            Block block = slot.block;
+            if (block != null) {
+                long serial = block.next().getAndIncrement();
+                if (serial < block.end()) {
+                    return format(prefix, serial);
+                }
+            }
+            slot.refill(block);
+        }
+    }
+
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() < 2 || !accountNumber.matches("\\d+")) {
+            return false;
+        }
+        int last = accountNumber.length() - 1;
+        return checkDigit(accountNumber.substring(0, last)) == accountNumber.charAt(last) - '0';
+    }
+
+    static int checkDigit(String digits) {
+
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private String format(String prefix, long serial) {
+        String body = prefix + String.format("%0" + properties.getSerialDigits() + "d", serial);
+        return body + checkDigit(body);
+    }
+
+    private Block reserve(String prefix) {
+
+        long capacity = maxSerial() + 1;
+        int blockSize = Math.max(1, properties.getBlockSize());
+
+        Long end = transactionTemplate.execute(status -> {
+            // The row lock taken by the UPDATE serializes reservations across application instances
+            int updated = jdbcTemplate.update(
+                    "update account_number_range set next_serial = next_serial + ? where prefix = ? and next_serial < ?",
+                    blockSize, prefix, capacity);
+            if (updated == 0) {
+                if (jdbcTemplate.queryForObject(
+                        "select count(*) from account_number_range where prefix = ?", Integer.class, prefix) > 0) {
+                    throw new RuntimeException("Account numbers exhausted for prefix " + prefix);
+                }
+                try {
+                    jdbcTemplate.update("insert into account_number_range (prefix, next_serial) values (?, ?)",
+                            prefix, 1L + blockSize);
+                } catch (DuplicateKeyException e) {
+                    // Another instance created the row first; retry the reservation on the next call
+                    status.setRollbackOnly();
+                    return null;
+                }
+            }
+            return jdbcTemplate.queryForObject(
+                    "select next_serial from account_number_range where prefix = ?", Long.class, prefix);
+        });
+
+        if (end == null) {
+            return null;
+        }
+        return new Block(new AtomicLong(end - blockSize), Math.min(end, capacity));
+    }
+
+    private long maxSerial() {
+        long max = 1;
+        for (int i = 0; i < properties.getSerialDigits(); i++) {
+            max *= 10;
+        }
+        return max - 1;
+    }
+}
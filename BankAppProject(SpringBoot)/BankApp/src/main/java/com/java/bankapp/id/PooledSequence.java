@@ -0,0 +1,22 @@
+package com.java.bankapp.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates ids from the named database sequence in blocks of
+ * {@code bankapp.id.block-size}, so Hibernate can batch inserts instead of reading back
+ * an IDENTITY key after every row.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PooledSequence {
+
+    String name();
+
+}
@@ -0,0 +1,42 @@
+package com.java.bankapp.id;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.util.Properties;
+
+/**
+ * A {@link SequenceStyleGenerator} whose increment comes from the Hibernate setting
+ * {@value #BLOCK_SIZE} rather than a compile-time {@code allocationSize}. It uses the
+ * pooled-lo optimizer: a sequence value {@code v} reserves {@code [v, v + blockSize)},
+ * which is the same contract {@link SequenceIdAllocator} follows for JDBC writers.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String BLOCK_SIZE = "bankapp.id.block-size";
+
+    public static final int DEFAULT_BLOCK_SIZE = 50;
+
+    private final String sequenceName;
+
+    public PooledSequenceGenerator(PooledSequence config) {
+        this.sequenceName = config.name();
+    }
+
+    @Override
+    public void configure(GeneratorCreationContext creationContext, Properties parameters) throws MappingException {
+
+        int blockSize = creationContext.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSetting(BLOCK_SIZE, StandardConverters.INTEGER, DEFAULT_BLOCK_SIZE);
+
+        parameters.put(SEQUENCE_PARAM, sequenceName);
+        parameters.put(INITIAL_PARAM, "1");
+        parameters.put(INCREMENT_PARAM, String.valueOf(Math.max(1, blockSize)));
+        parameters.put(OPT_PARAM, "pooled-lo");
+
+        super.configure(creationContext, parameters);
+    }
+}
@@ -0,0 +1,65 @@
+package com.java.bankapp.id;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out ids for rows written with plain JDBC from the same sequences and block size
+ * as {@link PooledSequenceGenerator}, so they never collide with Hibernate-generated ids.
+ * One sequence call reserves a whole block; it is made under an explicit lock instead of
+ * {@code synchronized}, so virtual threads can unmount while the call is in flight.
+ */
+@Component
+public class SequenceIdAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+    private final int blockSize;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    private static final class Block {
+        final ReentrantLock lock = new ReentrantLock();
+        long next;
+        long end;
+    }
+
+    public SequenceIdAllocator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.dialect = sessionFactory.getJdbcServices().getDialect();
+
+        Object configured = sessionFactory.getProperties().get(PooledSequenceGenerator.BLOCK_SIZE);
+        this.blockSize = configured != null
+                ? Math.max(1, Integer.parseInt(configured.toString()))
+                : PooledSequenceGenerator.DEFAULT_BLOCK_SIZE;
+    }
+
+    public long nextId(String sequenceName) {
+
+        Block block = blocks.computeIfAbsent(sequenceName, name -> new Block());
+
+        block.lock.lock();
+        try {
+            if (block.next == block.end) {
+                Long low = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequenceName), Long.class);
+                if (low == null) {
+                    throw new RuntimeException("Sequence " + sequenceName + " returned no value");
+                }
+                block.next = low;
+                block.end = low + blockSize;
+            }
+            return block.next++;
+        } finally {
+            block.lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.java.bankapp.journal;
+
+import com.java.bankapp.config.JournalProperties;
+import com.java.bankapp.entity.ProjectionCheckpoint;
+import com.java.bankapp.entity.Transaction;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.repository.ProjectionCheckpointRepository;
+import com.java.bankapp.repository.TransactionRepository;
+import com.java.bankapp.summary.AccountSummaryWriter;
+import com.java.bankapp.summary.SummaryDelta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads journal records into the {@code Transaction} table in bulk. The projected
+ * position is stored in the same database transaction as the rows, so every journal
+ * record is projected exactly once.
+ */
+@Component
+@ConditionalOnProperty(name = "bankapp.journal.enabled", havingValue = "true")
+public class JournalProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalProjector.class);
+
+    static final String CHECKPOINT = "transaction-journal";
+
+    private final TransactionJournal journal;
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final ProjectionCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JournalProperties properties;
+    private final AccountSummaryWriter summaryWriter;
+
+    public JournalProjector(TransactionJournal journal,
+                            TransactionRepository transactionRepository,
+                            AccountRepository accountRepository,
+                            ProjectionCheckpointRepository checkpointRepository,
+                            PlatformTransactionManager transactionManager,
+                            JournalProperties properties,
+                            AccountSummaryWriter summaryWriter) {
+        this.journal = journal;
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.summaryWriter = summaryWriter;
+    }
+
+    @Scheduled(fixedDelayString = "${bankapp.journal.projector-interval-ms:500}")
+    public void project() {
+
+        try {
+            Integer projected;
+            do {
+                projected = transactionTemplate.execute(status -> projectBatch());
+            } while (projected != null && projected == properties.getProjectorBatchSize());
+        } catch (RuntimeException e) {
+            log.error("Journal projection failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private int projectBatch() {
+
+        ProjectionCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT)
+                .orElseGet(() -> new ProjectionCheckpoint(CHECKPOINT));
+
+        if (checkpoint.getPosition() >= journal.getLastSequence()) {
+            return 0;
+        }
+
+        List<JournalRecord> records = journal.read(checkpoint.getPosition() + 1, properties.getProjectorBatchSize());
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        List<Transaction> transactions = new ArrayList<>(records.size());
+        SummaryDelta summary = new SummaryDelta();
+        for (JournalRecord record : records) {
+
+            Transaction transaction = new Transaction();
+            transaction.setTransactionType(record.type());
+            transaction.setAmount(record.amount());
+            transaction.setTransactionDate(LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneId.systemDefault()));
+            summary.add(record.type(), record.fromAccountId(), record.toAccountId(),
+                    record.amount().minorUnits(), transaction.getTransactionDate());
+
+            if (record.fromAccountId() != null) {
+                transaction.setFromAccount(accountRepository.getReferenceById(record.fromAccountId()));
+            }
+            if (record.toAccountId() != null) {
+                transaction.setToAccount(accountRepository.getReferenceById(record.toAccountId()));
+            }
+
+            transactions.add(transaction);
+        }
+
+        transactionRepository.saveAll(transactions);
+        summaryWriter.apply(summary);
+
+        checkpoint.setPosition(records.get(records.size() - 1).sequence());
+        checkpointRepository.save(checkpoint);
+
+        return records.size();
+    }
+}
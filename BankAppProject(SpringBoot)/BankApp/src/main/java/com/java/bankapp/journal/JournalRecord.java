@@ -0,0 +1,12 @@
+package com.java.bankapp.journal;
+
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.money.Money;
+
+public record JournalRecord(long sequence,
+                            TransactionType type,
+                            Long fromAccountId,
+                            Long toAccountId,
+                            Money amount,
+                            long timestamp) {
+}
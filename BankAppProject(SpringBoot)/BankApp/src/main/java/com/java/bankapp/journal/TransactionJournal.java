@@ -0,0 +1,325 @@
+package com.java.bankapp.journal;
+
+import com.java.bankapp.config.JournalProperties;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.money.Money;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of balance mutations stored in fixed-size, memory-mapped segment
+ * files. Records have a fixed length, so the position of sequence {@code n} inside the
+ * segment starting at {@code first} is simply {@code (n - first) * RECORD_SIZE}.
+ */
+@Component
+@ConditionalOnProperty(name = "bankapp.journal.enabled", havingValue = "true")
+public class TransactionJournal {
+
+    static final int RECORD_SIZE = 64;
+
+    private static final int MAGIC = 0x4A524E31;
+    private static final int CRC_OFFSET = 56;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".jnl";
+
+    private final JournalProperties properties;
+    private final Path directory;
+    private final long segmentCapacity;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+    private FileChannel activeChannel;
+    private MappedByteBuffer activeBuffer;
+    private volatile long lastSequence;
+    private boolean unsynced;
+
+    public TransactionJournal(JournalProperties properties) throws IOException {
+        this.properties = properties;
+        this.directory = Path.of(properties.getDirectory());
+        this.segmentCapacity = Math.max(1, properties.getSegmentSize() / RECORD_SIZE) * RECORD_SIZE;
+
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    public long append(TransactionType type, Long fromAccountId, Long toAccountId, Money amount) {
+
+        appendLock.lock();
+        try {
+            if (activeBuffer == null || activeBuffer.remaining() < RECORD_SIZE) {
+                roll(lastSequence + 1);
+            }
+
+            long sequence = lastSequence + 1;
+            int start = activeBuffer.position();
+
+            activeBuffer.putInt(MAGIC);
+            activeBuffer.put((byte) type.ordinal());
+            activeBuffer.position(start + 8);
+            activeBuffer.putLong(sequence);
+            activeBuffer.putLong(fromAccountId != null ? fromAccountId : 0L);
+            activeBuffer.putLong(toAccountId != null ? toAccountId : 0L);
+            activeBuffer.putLong(amount.minorUnits());
+            activeBuffer.putInt(Money.SCALE); // amounts are always minor units at this scale
+            activeBuffer.position(start + 48);
+            activeBuffer.putLong(System.currentTimeMillis());
+            activeBuffer.putInt(checksum(activeBuffer, start));
+            activeBuffer.position(start + RECORD_SIZE);
+
+            unsynced = true;
+            if (properties.getFsync() == JournalProperties.FsyncMode.EVERY_WRITE) {
+                force();
+            }
+
+            lastSequence = sequence;
+            return sequence;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Reads up to {@code max} records starting at {@code fromSequence}. Only records that
+     * have been fully appended are returned.
+     */
+    public List<JournalRecord> read(long fromSequence, int max) {
+
+        List<JournalRecord> records = new ArrayList<>();
+        long sequence = Math.max(1, fromSequence);
+        long last = lastSequence;
+
+        while (sequence <= last && records.size() < max) {
+
+            int before = records.size();
+            Map.Entry<Long, Path> segment;
+            appendLock.lock();
+            try {
+                segment = segments.floorEntry(sequence);
+            } finally {
+                appendLock.unlock();
+            }
+            if (segment == null) {
+                break;
+            }
+
+            try (FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+                int position = (int) ((sequence - segment.getKey()) * RECORD_SIZE);
+                while (sequence <= last && records.size() < max && position + RECORD_SIZE <= buffer.limit()) {
+                    JournalRecord record = decode(buffer, position);
+                    if (record == null) {
+                        break;
+                    }
+                    records.add(record);
+                    sequence++;
+                    position += RECORD_SIZE;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read journal segment " + segment.getValue(), e);
+            }
+
+            if (records.size() == before) {
+                break;
+            }
+        }
+
+        return records;
+    }
+
+    /**
+     * Receives each record of a {@link #scan}; absent accounts are passed as 0 and the
+     * amount in minor units.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(long sequence, long fromAccountId, long toAccountId, long minorUnits);
+    }
+
+    /**
+     * Visits the records from {@code fromSequence} to {@code toSequence} inclusive, in order,
+     * without allocating per record, so replaying a long journal is bound by memory bandwidth.
+     * Safe to run from several threads over different ranges at once.
+     */
+    public void scan(long fromSequence, long toSequence, RecordVisitor visitor) {
+
+        long sequence = Math.max(1, fromSequence);
+        long last = Math.min(toSequence, lastSequence);
+        if (sequence > last) {
+            return;
+        }
+
+        List<Map.Entry<Long, Path>> covering;
+        appendLock.lock();
+        try {
+            Long first = segments.floorKey(sequence);
+            covering = first == null ? List.of() : List.copyOf(segments.subMap(first, true, last, true).entrySet());
+        } finally {
+            appendLock.unlock();
+        }
+
+        CRC32 crc = new CRC32();
+        for (Map.Entry<Long, Path> segment : covering) {
+            try (FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                ByteBuffer view = buffer.duplicate();
+
+                int position = (int) ((sequence - segment.getKey()) * RECORD_SIZE);
+                while (sequence <= last && position + RECORD_SIZE <= buffer.limit()) {
+                    crc.reset();
+                    crc.update(view.limit(position + CRC_OFFSET).position(position));
+                    if (buffer.getInt(position) != MAGIC || buffer.getInt(position + CRC_OFFSET) != (int) crc.getValue()) {
+                        throw new IllegalStateException("Journal record " + sequence + " in " + segment.getValue()
+                                + " is corrupt");
+                    }
+                    visitor.visit(sequence, buffer.getLong(position + 16), buffer.getLong(position + 24),
+                            buffer.getLong(position + 32));
+                    sequence++;
+                    position += RECORD_SIZE;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read journal segment " + segment.getValue(), e);
+            }
+        }
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    @Scheduled(fixedDelayString = "${bankapp.journal.fsync-interval-ms:100}")
+    public void sync() {
+
+        if (properties.getFsync() != JournalProperties.FsyncMode.INTERVAL) {
+            return;
+        }
+
+        appendLock.lock();
+        try {
+            force();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+
+        appendLock.lock();
+        try {
+            force();
+            if (activeChannel != null) {
+                activeChannel.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void force() {
+        if (unsynced && activeBuffer != null) {
+            activeBuffer.force();
+            unsynced = false;
+        }
+    }
+
+    private void roll(long firstSequence) {
+
+        try {
+            force();
+            if (activeChannel != null) {
+                activeChannel.close();
+            }
+
+            Path path = directory.resolve(segmentName(firstSequence));
+            activeChannel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentCapacity);
+            segments.put(firstSequence, path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open journal segment", e);
+        }
+    }
+
+    private void recover() throws IOException {
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .forEach(path -> segments.put(firstSequenceOf(path), path));
+        }
+
+        if (segments.isEmpty()) {
+            lastSequence = 0;
+            return;
+        }
+
+        Map.Entry<Long, Path> last = segments.lastEntry();
+        activeChannel = FileChannel.open(last.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(activeChannel.size(), segmentCapacity));
+
+        // Scan forward to the first record that was never written or was torn by a crash
+        int position = 0;
+        while (position + RECORD_SIZE <= activeBuffer.limit() && decode(activeBuffer, position) != null) {
+            position += RECORD_SIZE;
+        }
+        activeBuffer.position(position);
+        lastSequence = last.getKey() + position / RECORD_SIZE - 1;
+    }
+
+    private JournalRecord decode(ByteBuffer buffer, int position) {
+
+        if (buffer.getInt(position) != MAGIC) {
+            return null;
+        }
+        if (buffer.getInt(position + CRC_OFFSET) != checksum(buffer, position)) {
+            return null;
+        }
+
+        TransactionType type = TransactionType.values()[buffer.get(position + 4)];
+        long sequence = buffer.getLong(position + 8);
+        long from = buffer.getLong(position + 16);
+        long to = buffer.getLong(position + 24);
+        long minorUnits = buffer.getLong(position + 32);
+        long timestamp = buffer.getLong(position + 48);
+
+        return new JournalRecord(sequence, type,
+                from != 0 ? from : null,
+                to != 0 ? to : null,
+                Money.ofMinor(minorUnits),
+                timestamp);
+    }
+
+    private int checksum(ByteBuffer buffer, int position) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(position, CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    private static String segmentName(long firstSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX);
+    }
+
+    private static long firstSequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,299 @@
+package com.java.bankapp.ledger;
+
+import com.java.bankapp.config.LedgerProperties;
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.journal.TransactionJournal;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps authoritative account balances in memory. Every account maps to one of a fixed
+ * set of lock stripes; a transfer takes both stripes in ascending stripe order so two
+ * transfers can never wait on each other in a cycle. Changed balances are written back
+ * to the {@link AccountRepository} by {@link #flush()} in the background.
+ *
+ * <p>Balances are mutable {@code long} minor-unit cells, so a deposit, withdrawal or
+ * transfer on an already loaded account allocates nothing.
+ *
+ * <p>When the {@link TransactionJournal} is enabled, every movement is appended to it while
+ * the account locks are held, after the balance check and before the cells change. The
+ * journal therefore never misses a movement the balances contain, and a failed append
+ * leaves the balances untouched.
+ */
+@Component
+@ConditionalOnProperty(name = "bankapp.ledger.enabled", havingValue = "true")
+public class LedgerEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerEngine.class);
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionJournal journal;
+
+    private final ReentrantLock[] stripes;
+    private final int stripeMask;
+
+    private final Map<Long, Balance> balances = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public LedgerEngine(AccountRepository accountRepository,
+                        PlatformTransactionManager transactionManager,
+                        LedgerProperties properties,
+                        ObjectProvider<TransactionJournal> journal) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journal = journal.getIfAvailable();
+
+        int size = Integer.highestOneBit(Math.max(1, properties.getStripes() - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.stripeMask = size - 1;
+    }
+
+    private static final class Balance {
+        long minorUnits;
+    }
+
+    public Money getBalance(Long accountId) {
+
+        ReentrantLock lock = stripeFor(accountId);
+        lock.lock();
+        try {
+            return Money.ofMinor(load(accountId, "Account not found").minorUnits);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void deposit(Long accountId, Money amount) {
+
+        ReentrantLock lock = stripeFor(accountId);
+        lock.lock();
+        try {
+            Balance balance = load(accountId, "Account not found");
+            long credited = Math.addExact(balance.minorUnits, amount.minorUnits());
+            append(TransactionType.DEPOSIT, null, accountId, amount);
+            balance.minorUnits = credited;
+            dirty.add(accountId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void withdraw(Long accountId, Money amount) {
+
+        ReentrantLock lock = stripeFor(accountId);
+        lock.lock();
+        try {
+            Balance balance = load(accountId, "Account not found");
+
+            if (balance.minorUnits < amount.minorUnits()) {
+                throw new RuntimeException("Insufficient balance");
+            }
+
+            append(TransactionType.WITHDRAW, accountId, null, amount);
+            balance.minorUnits = Math.subtractExact(balance.minorUnits, amount.minorUnits());
+            dirty.add(accountId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void transfer(Long fromAccountId, Long toAccountId, Money amount) {
+
+        int fromStripe = stripeIndex(fromAccountId);
+        int toStripe = stripeIndex(toAccountId);
+
+        ReentrantLock first = stripes[Math.min(fromStripe, toStripe)];
+        ReentrantLock second = stripes[Math.max(fromStripe, toStripe)];
+
+        first.lock();
+        try {
+            if (second != first) {
+                second.lock();
+            }
+            try {
+                Balance fromBalance = load(fromAccountId, "Sender account not found");
+                Balance toBalance = load(toAccountId, "Receiver account not found");
+
+                if (fromBalance.minorUnits < amount.minorUnits()) {
+                    throw new RuntimeException("Insufficient balance");
+                }
+
+                // A transfer to the same account leaves its single cell unchanged
+                long credited = fromBalance != toBalance
+                        ? Math.addExact(toBalance.minorUnits, amount.minorUnits())
+                        : toBalance.minorUnits;
+                append(TransactionType.TRANSFER, fromAccountId, toAccountId, amount);
+                if (fromBalance != toBalance) {
+                    fromBalance.minorUnits = Math.subtractExact(fromBalance.minorUnits, amount.minorUnits());
+                    toBalance.minorUnits = credited;
+                }
+                dirty.add(fromAccountId);
+                dirty.add(toAccountId);
+            } finally {
+                if (second != first) {
+                    second.unlock();
+                }
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+
+    /**
+     * Undoes a movement that was applied but whose recording failed, so the balances match
+     * the Transaction table again. Either account may be null, as for a deposit or a
+     * withdrawal. There is no balance check: a receiver that already spent the amount goes
+     * negative rather than leave money that was never recorded.
+     */
+    public void reverse(Long fromAccountId, Long toAccountId, Money amount) {
+
+        int fromStripe = stripeIndex(fromAccountId != null ? fromAccountId : toAccountId);
+        int toStripe = stripeIndex(toAccountId != null ? toAccountId : fromAccountId);
+
+        ReentrantLock first = stripes[Math.min(fromStripe, toStripe)];
+        ReentrantLock second = stripes[Math.max(fromStripe, toStripe)];
+
+        first.lock();
+        try {
+            if (second != first) {
+                second.lock();
+            }
+            try {
+                if (fromAccountId != null) {
+                    Balance fromBalance = load(fromAccountId, "Sender account not found");
+                    fromBalance.minorUnits = Math.addExact(fromBalance.minorUnits, amount.minorUnits());
+                    dirty.add(fromAccountId);
+                }
+                if (toAccountId != null) {
+                    Balance toBalance = load(toAccountId, "Receiver account not found");
+                    toBalance.minorUnits = Math.subtractExact(toBalance.minorUnits, amount.minorUnits());
+                    dirty.add(toAccountId);
+                }
+            } finally {
+                if (second != first) {
+                    second.unlock();
+                }
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+
+    /**
+     * Sets a balance rebuilt outside the database, before any traffic reaches the account,
+     * and queues it for the next flush so the database catches up.
+     */
+    public void restore(long accountId, long minorUnits) {
+
+        ReentrantLock lock = stripeFor(accountId);
+        lock.lock();
+        try {
+            balances.computeIfAbsent(accountId, id -> new Balance()).minorUnits = minorUnits;
+            dirty.add(accountId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Synchronized so an older snapshot can never commit after a newer one
+    @Scheduled(fixedDelayString = "${bankapp.ledger.flush-interval-ms:200}")
+    public synchronized void flush() {
+
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Money> snapshot = new HashMap<>();
+        for (Long accountId : dirty) {
+            dirty.remove(accountId);
+
+            ReentrantLock lock = stripeFor(accountId);
+            lock.lock();
+            try {
+                snapshot.put(accountId, Money.ofMinor(balances.get(accountId).minorUnits));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Account> accounts = accountRepository.findAllById(snapshot.keySet());
+                for (Account account : accounts) {
+                    account.setBalance(snapshot.get(account.getId()));
+                }
+            });
+        } catch (RuntimeException e) {
+            dirty.addAll(snapshot.keySet());
+            log.error("Ledger flush of {} accounts failed, will retry: {}", snapshot.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public int pendingFlushCount() {
+        return dirty.size();
+    }
+
+    // True when movements are journalled here, so callers must not record them again
+    public boolean isJournalled() {
+        return journal != null;
+    }
+
+    // Must be called while holding the stripe locks of every account involved
+    private void append(TransactionType type, Long fromAccountId, Long toAccountId, Money amount) {
+        if (journal != null) {
+            journal.append(type, fromAccountId, toAccountId, amount);
+        }
+    }
+
+    // Must be called while holding the account's stripe lock
+    private Balance load(Long accountId, String notFoundMessage) {
+
+        Balance balance = balances.get(accountId);
+        if (balance != null) {
+            return balance;
+        }
+
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException(notFoundMessage));
+
+        balance = new Balance();
+        balance.minorUnits = account.getBalance() != null ? account.getBalance().minorUnits() : 0;
+        balances.put(accountId, balance);
+        return balance;
+    }
+
+    private ReentrantLock stripeFor(Long accountId) {
+        return stripes[stripeIndex(accountId)];
+    }
+
+    private int stripeIndex(Long accountId) {
+        long h = accountId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & stripeMask;
+    }
+}
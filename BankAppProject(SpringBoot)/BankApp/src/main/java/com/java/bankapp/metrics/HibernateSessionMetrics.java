@@ -0,0 +1,36 @@
+package com.java.bankapp.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts statements, batches and flushes into the current {@link RequestStatistics}.
+ * Hibernate creates one per session (see {@code hibernate.session.events.auto}); outside a
+ * sampled request every callback is a ThreadLocal read.
+ */
+public class HibernateSessionMetrics implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.batches++;
+        }
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.flushes++;
+            statistics.entitiesFlushed += numberOfEntities;
+        }
+    }
+}
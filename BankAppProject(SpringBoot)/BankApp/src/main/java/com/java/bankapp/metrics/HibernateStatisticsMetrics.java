@@ -0,0 +1,47 @@
+package com.java.bankapp.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes Hibernate's session-factory statistics (entity loads and fetches, flushes,
+ * queries, prepared statements) as {@code bankapp.hibernate.*} counters. They stay at zero
+ * unless {@code hibernate.generate_statistics} is on.
+ */
+@Component
+@ConditionalOnProperty(name = "bankapp.metrics.enabled", havingValue = "true")
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "bankapp.hibernate.entity.loads", "Entities loaded", Statistics::getEntityLoadCount);
+        counter(registry, "bankapp.hibernate.entity.fetches", "Entities fetched lazily", Statistics::getEntityFetchCount);
+        counter(registry, "bankapp.hibernate.entity.inserts", "Entities inserted", Statistics::getEntityInsertCount);
+        counter(registry, "bankapp.hibernate.entity.updates", "Entities updated", Statistics::getEntityUpdateCount);
+        counter(registry, "bankapp.hibernate.flushes", "Session flushes", Statistics::getFlushCount);
+        counter(registry, "bankapp.hibernate.queries", "HQL and native queries executed", Statistics::getQueryExecutionCount);
+        counter(registry, "bankapp.hibernate.statements.prepared", "JDBC statements prepared", Statistics::getPrepareStatementCount);
+        counter(registry, "bankapp.hibernate.sessions.opened", "Sessions opened", Statistics::getSessionOpenCount);
+        counter(registry, "bankapp.hibernate.optimistic.failures", "Optimistic lock failures", Statistics::getOptimisticFailureCount);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description, ToDoubleFunction<Statistics> count) {
+        FunctionCounter.builder(name, statistics, count)
+                .description(description)
+                .register(registry);
+    }
+}
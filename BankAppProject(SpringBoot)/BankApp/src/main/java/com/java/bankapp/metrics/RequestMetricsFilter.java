@@ -0,0 +1,72 @@
+package com.java.bankapp.metrics;
+
+import com.java.bankapp.config.MetricsProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records the Hibernate statements, batches and flushes each request caused, per URI
+ * pattern, as {@code bankapp.request.statements}, {@code .batches}, {@code .flushes} and
+ * {@code .entities.flushed}. Sampled like the service timers.
+ */
+@Component
+@ConditionalOnProperty(name = "bankapp.metrics.enabled", havingValue = "true")
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final int sampleEvery;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry, MetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.sampleEvery = Math.max(1, properties.getSampleEvery());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return sampleEvery > 1 && ThreadLocalRandom.current().nextInt(sampleEvery) != 0;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        RequestStatistics statistics = RequestStatistics.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestStatistics.end();
+
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            String method = request.getMethod();
+
+            summary("bankapp.request.statements", "JDBC statements executed by Hibernate per request", uri, method)
+                    .record(statistics.statements);
+            summary("bankapp.request.batches", "JDBC batches executed by Hibernate per request", uri, method)
+                    .record(statistics.batches);
+            summary("bankapp.request.flushes", "Hibernate session flushes per request", uri, method)
+                    .record(statistics.flushes);
+            summary("bankapp.request.entities.flushed", "Entities checked by Hibernate flushes per request", uri, method)
+                    .record(statistics.entitiesFlushed);
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String uri, String method) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("uri", uri)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,31 @@
+package com.java.bankapp.metrics;
+
+/**
+ * Hibernate work done on behalf of the current HTTP request, collected by
+ * {@link HibernateSessionMetrics} while {@link RequestMetricsFilter} has a request open on
+ * this thread. Work done on other threads (group commit, projector, ledger flush) is not
+ * attributed to the request.
+ */
+public final class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    int statements;
+    int batches;
+    int flushes;
+    int entitiesFlushed;
+
+    static RequestStatistics begin() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static RequestStatistics current() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,68 @@
+package com.java.bankapp.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times service calls as {@code bankapp.service}, tagged with the service, the method and
+ * whether it threw. With {@code sampleEvery > 1} only a random one in {@code sampleEvery}
+ * calls is timed: percentiles stay representative, but the timer's count is a sample.
+ */
+public class ServiceTimer implements MethodInterceptor {
+
+    private final String service;
+    private final MeterRegistry meterRegistry;
+    private final int sampleEvery;
+
+    private final ConcurrentMap<Method, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Method, Timer> errorTimers = new ConcurrentHashMap<>();
+
+    public ServiceTimer(String service, MeterRegistry meterRegistry, int sampleEvery) {
+        this.service = service;
+        this.meterRegistry = meterRegistry;
+        this.sampleEvery = Math.max(1, sampleEvery);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+
+        Method method = invocation.getMethod();
+        if (method.getDeclaringClass() == Object.class
+                || (sampleEvery > 1 && ThreadLocalRandom.current().nextInt(sampleEvery) != 0)) {
+            return invocation.proceed();
+        }
+
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method, m -> timer(m, "success"));
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            errorTimers.computeIfAbsent(method, m -> timer(m, "error"))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(Method method, String outcome) {
+        return Timer.builder("bankapp.service")
+                .description("Service method latency")
+                .tag("service", service)
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,52 @@
+package com.java.bankapp.metrics;
+
+import com.java.bankapp.config.MetricsProperties;
+import com.java.bankapp.service.AccountService;
+import com.java.bankapp.service.CustomerService;
+import com.java.bankapp.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Wraps the account, customer and transaction services in a {@link ServiceTimer}, so every
+ * method call is timed as {@code bankapp.service}. Its percentiles come
+ * from the {@code management.metrics.distribution.*.bankapp.service} properties.
+ */
+@Component
+@ConditionalOnProperty(name = "bankapp.metrics.enabled", havingValue = "true")
+public class ServiceTimingPostProcessor implements BeanPostProcessor {
+
+    private static final List<Class<?>> SERVICES = List.of(AccountService.class, CustomerService.class,
+            TransactionService.class);
+
+    private final ObjectProvider<MetricsProperties> properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ServiceTimingPostProcessor(ObjectProvider<MetricsProperties> properties,
+                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+        for (Class<?> service : SERVICES) {
+            if (service.isInstance(bean)) {
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.setInterfaces(service);
+                proxyFactory.addAdvice(new ServiceTimer(service.getSimpleName(), meterRegistry.getObject(),
+                        properties.getObject().getSampleEvery()));
+                return proxyFactory.getProxy(bean.getClass().getClassLoader());
+            }
+        }
+
+        return bean;
+    }
+}
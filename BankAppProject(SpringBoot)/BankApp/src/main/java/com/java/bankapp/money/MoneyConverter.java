@@ -0,0 +1,22 @@
+package com.java.bankapp.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link Money} as a BIGINT column of minor units, so the database adds and sums
+ * integers and no {@code BigDecimal} is built on the way in or out.
+ */
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        return money != null ? money.minorUnits() : null;
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long minorUnits) {
+        return minorUnits != null ? Money.ofMinor(minorUnits) : null;
+    }
+}
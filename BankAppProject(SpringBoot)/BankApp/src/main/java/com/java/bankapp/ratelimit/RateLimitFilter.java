@@ -0,0 +1,96 @@
+package com.java.bankapp.ratelimit;
+
+import com.java.bankapp.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Throttles the configured endpoints per account (or customer) id, so one noisy client
+ * cannot take every database connection. A throttled request is answered with 429 and a
+ * Retry-After header before it reaches a controller, and counted in
+ * {@code bankapp.rate.limit.throttled}.
+ *
+ * <p>Requests with a missing or malformed id share one bucket per endpoint, so they cannot
+ * slip past the limit. An endpoint configured without a key parameter, such as the batch
+ * transfer whose ids are in the body, is throttled as a whole through that same bucket.
+ */
+@Component
+@ConditionalOnProperty(name = "bankapp.rate-limit.enabled", havingValue = "true")
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Ids from the sequences are positive, so this bucket never belongs to a real account
+    private static final long SHARED_KEY = 0;
+
+    private record Endpoint(String keyParameter, TokenBucketLimiter limiter, Counter throttled) {
+    }
+
+    private final Map<String, Endpoint> endpoints = new HashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        properties.getEndpoints().forEach((name, endpoint) -> endpoints.put(endpoint.getPath(), new Endpoint(
+                endpoint.getKeyParameter() == null || endpoint.getKeyParameter().isBlank()
+                        ? null : endpoint.getKeyParameter(),
+                new TokenBucketLimiter(endpoint.getPermitsPerSecond(), endpoint.getBurst(),
+                        properties.getMaximumKeys(), properties.getIdleExpiry(), System::nanoTime),
+                Counter.builder("bankapp.rate.limit.throttled")
+                        .description("Requests rejected with 429 by the rate limiter")
+                        .tag("endpoint", name)
+                        .register(meterRegistry))));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !endpoints.containsKey(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        Endpoint endpoint = endpoints.get(path(request));
+        long key = endpoint.keyParameter() != null ? parseKey(request.getParameter(endpoint.keyParameter())) : SHARED_KEY;
+
+        long waitNanos = endpoint.limiter().tryAcquire(key);
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        endpoint.throttled().increment();
+
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too many requests, retry after " + retryAfterSeconds + " s");
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static long parseKey(String value) {
+        if (value == null) {
+            return SHARED_KEY;
+        }
+        try {
+            return Math.max(Long.parseLong(value), SHARED_KEY);
+        } catch (NumberFormatException e) {
+            return SHARED_KEY;
+        }
+    }
+}
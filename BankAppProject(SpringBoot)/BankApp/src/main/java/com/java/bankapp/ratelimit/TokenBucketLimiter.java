@@ -0,0 +1,60 @@
+package com.java.bankapp.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets kept as a single theoretical arrival time per key (the generic cell rate
+ * algorithm): a request is admitted if the bucket's next arrival time is at most
+ * {@code burst} intervals ahead of now, and pushes it one interval further with a CAS.
+ * Equivalent to a bucket of {@code burst} tokens refilled at {@code permitsPerSecond},
+ * without a refill step or a lock. Buckets live in a bounded Caffeine cache and are
+ * dropped once idle.
+ */
+public class TokenBucketLimiter {
+
+    private final Cache<Long, AtomicLong> buckets;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier clock;
+
+    public TokenBucketLimiter(double permitsPerSecond, int burst, long maximumKeys, Duration idleExpiry,
+                              LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limits need a positive rate and a burst of at least 1");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.clock = clock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+    }
+
+    // 0 if the request is admitted, otherwise the nanoseconds until one would be
+    public long tryAcquire(long key) {
+
+        AtomicLong arrival = buckets.getIfPresent(key);
+        if (arrival == null) {
+            arrival = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+
+        long now = clock.getAsLong();
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,13 +1,56 @@
 package com.java.bankapp.repository;
 
+import com.java.bankapp.dto.AccountDTO;
 import com.java.bankapp.entity.Account;
+import com.java.bankapp.entity.AccountType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    @Query("select a.id from Account a where a.accountNumber = :accountNumber")
+    Optional<Long> findIdByAccountNumber(String accountNumber);
+
+    @Query("select a.accountType from Account a where a.id = :id")
+    Optional<AccountType> findAccountTypeById(Long id);
+
+    // Caches the matching ids; any Hibernate write to the account table invalidates the cached results
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "account-by-customer")
+    })
     List<Account> findByCustomerId(Long customerId);
+
+    // Narrow single-row SELECT; a sharded account's balance is summed from its shards in the same statement
+    @Query("""
+            select new com.java.bankapp.dto.AccountDTO(
+                a.id,
+                a.accountNumber,
+                a.balance,
+                (select sum(cast(s.balance as Long)) from AccountShard s where s.accountId = a.id),
+                a.accountType,
+                a.status)
+            from Account a
+            where a.id = :id
+            """)
+    Optional<AccountDTO> findDtoById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(Long id);
+
+    // Ordered by id so concurrent lockers always acquire row locks in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id in :ids order by a.id")
+    List<Account> findAllByIdForUpdate(Collection<Long> ids);
 }
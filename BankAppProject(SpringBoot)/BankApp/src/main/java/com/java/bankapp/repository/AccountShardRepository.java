@@ -0,0 +1,31 @@
+package com.java.bankapp.repository;
+
+import com.java.bankapp.entity.AccountShard;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Optional;
+
+public interface AccountShardRepository extends JpaRepository<AccountShard, Long> {
+
+    // Balances are BIGINT minor units, added in SQL without going through Money. The declared
+    // query space limits invalidation to account_shard, so the rest of the second-level cache stays warm
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "account_shard"))
+    @Query(value = "update account_shard set balance = balance + :minorUnits where account_id = :accountId and shard_index = :shardIndex",
+            nativeQuery = true)
+    int credit(Long accountId, int shardIndex, long minorUnits);
+
+    @Query(value = "select coalesce(sum(balance), 0) from account_shard where account_id = :accountId", nativeQuery = true)
+    long totalBalance(Long accountId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountShard s where s.accountId = :accountId and s.shardIndex = :shardIndex")
+    Optional<AccountShard> findForUpdate(Long accountId, int shardIndex);
+}
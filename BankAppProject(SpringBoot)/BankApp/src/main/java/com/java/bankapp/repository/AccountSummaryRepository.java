@@ -0,0 +1,13 @@
+package com.java.bankapp.repository;
+
+import com.java.bankapp.entity.AccountSummary;
+import com.java.bankapp.entity.AccountSummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface AccountSummaryRepository extends JpaRepository<AccountSummary, AccountSummaryId> {
+
+    // Primary key prefix lookup: at most one row per transaction type
+    List<AccountSummary> findByAccountId(Long accountId);
+}
@@ -2,11 +2,17 @@ package com.java.bankapp.repository;
 
 import com.java.bankapp.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("select c.email from Customer c where c.email in :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
 }
@@ -0,0 +1,7 @@
+package com.java.bankapp.repository;
+
+import com.java.bankapp.entity.ImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, String> {
+}
@@ -0,0 +1,7 @@
+package com.java.bankapp.repository;
+
+import com.java.bankapp.entity.ProjectionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ProjectionCheckpointRepository extends JpaRepository<ProjectionCheckpoint, String> {
+}
@@ -1,12 +1,45 @@
 package com.java.bankapp.repository;
 
 import com.java.bankapp.entity.Transaction;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByFromAccountId(Long accountId);
 
-    List<Transaction> findByToAccountId(Long accountId);
+    // One query per direction, each walking its own history index; the caller merges the two
+    @Query("""
+            select t from Transaction t
+            where t.fromAccount.id = :accountId
+            order by t.transactionDate desc, t.id desc
+            """)
+    List<Transaction> findDebitHistory(Long accountId, Limit limit);
+
+    @Query("""
+            select t from Transaction t
+            where t.toAccount.id = :accountId
+            order by t.transactionDate desc, t.id desc
+            """)
+    List<Transaction> findCreditHistory(Long accountId, Limit limit);
+
+    @Query("""
+            select t from Transaction t
+            where t.fromAccount.id = :accountId
+              and (t.transactionDate < :transactionDate
+                   or (t.transactionDate = :transactionDate and t.id < :id))
+            order by t.transactionDate desc, t.id desc
+            """)
+    List<Transaction> findDebitHistoryBefore(Long accountId, LocalDateTime transactionDate, Long id, Limit limit);
+
+    @Query("""
+            select t from Transaction t
+            where t.toAccount.id = :accountId
+              and (t.transactionDate < :transactionDate
+                   or (t.transactionDate = :transactionDate and t.id < :id))
+            order by t.transactionDate desc, t.id desc
+            """)
+    List<Transaction> findCreditHistoryBefore(Long accountId, LocalDateTime transactionDate, Long id, Limit limit);
 }
@@ -0,0 +1,8 @@
+package com.java.bankapp.retry;
+
+@FunctionalInterface
+public interface ContendedOperation {
+
+    void run(boolean pessimistic);
+
+}
@@ -0,0 +1,118 @@
+package com.java.bankapp.retry;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.java.bankapp.config.RetryProperties;
+import com.java.bankapp.dto.AccountContentionDTO;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs an account mutation optimistically and retries it on version conflicts with
+ * bounded, jittered exponential backoff. After {@code pessimisticAfter} conflicts the
+ * remaining attempts ask the operation to take row locks instead.
+ *
+ * <p>Conflict statistics are kept for at most {@code maximumTrackedAccounts} accounts; the
+ * cache evicts the rarely conflicting ones first, so the hottest accounts stay visible.
+ */
+@Component
+public class OptimisticRetryExecutor {
+
+    private final RetryProperties properties;
+    private final Cache<Long, Contention> contention;
+
+    public OptimisticRetryExecutor(RetryProperties properties) {
+        this.properties = properties;
+        this.contention = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumTrackedAccounts())
+                .build();
+    }
+
+    public void execute(Long accountId, ContendedOperation operation) {
+
+        int conflicts = 0;
+
+        while (true) {
+            boolean pessimistic = conflicts >= properties.getPessimisticAfter();
+            try {
+                operation.run(pessimistic);
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                conflicts++;
+
+                Contention stats = contention.get(conflictingAccount(e, accountId), id -> new Contention());
+                stats.conflicts.increment();
+
+                if (conflicts >= properties.getMaxAttempts()) {
+                    throw new RuntimeException("Account is busy, please retry", e);
+                }
+
+                stats.retries.increment();
+                if (conflicts == properties.getPessimisticAfter()) {
+                    stats.pessimisticFallbacks.increment();
+                }
+
+                backoff(conflicts);
+            }
+        }
+    }
+
+    public List<AccountContentionDTO> hottestAccounts(int limit) {
+
+        return contention.asMap().entrySet().stream()
+                .map(entry -> {
+                    AccountContentionDTO dto = new AccountContentionDTO();
+                    dto.setAccountId(entry.getKey());
+                    dto.setConflicts(entry.getValue().conflicts.sum());
+                    dto.setRetries(entry.getValue().retries.sum());
+                    dto.setPessimisticFallbacks(entry.getValue().pessimisticFallbacks.sum());
+                    return dto;
+                })
+                .sorted(Comparator.comparingLong(AccountContentionDTO::getConflicts).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    // Runs pending evictions first, so the count never exceeds the configured maximum
+    public long trackedAccounts() {
+        contention.cleanUp();
+        return contention.estimatedSize();
+    }
+
+    private void backoff(int conflicts) {
+
+        long ceiling = Math.min(properties.getMaxBackoffMs(),
+                properties.getInitialBackoffMs() << Math.min(conflicts - 1, 20));
+
+        // Equal jitter: sleep somewhere between half and all of the exponential ceiling
+        long sleep = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying", e);
+        }
+    }
+
+    private Long conflictingAccount(OptimisticLockingFailureException e, Long fallback) {
+
+        if (e instanceof ObjectOptimisticLockingFailureException objectFailure
+                && objectFailure.getIdentifier() instanceof Long id) {
+            return id;
+        }
+        return fallback != null ? fallback : 0L;
+    }
+
+    private static final class Contention {
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder pessimisticFallbacks = new LongAdder();
+    }
+}
@@ -1,19 +1,25 @@
 package com.java.bankapp.service;
 
-import com.java.bankapp.entity.Account;
+import com.java.bankapp.dto.AccountDTO;
+import com.java.bankapp.entity.AccountType;
+import com.java.bankapp.money.Money;
 
-import java.math.BigDecimal;
+import java.util.List;
 
 public interface AccountService {
 
-    Account createAccount(Long customerId);
+    AccountDTO createAccount(Long customerId, AccountType accountType);
 
-    Account getAccount(Long accountId);
+    AccountDTO getAccount(Long accountId);
 
-    void deposit(Long accountId, BigDecimal amount);
+    AccountDTO getAccountByNumber(String accountNumber);
 
-    void withdraw(Long accountId, BigDecimal amount);
+    List<AccountDTO> getAccountsByCustomer(Long customerId);
 
-    void transfer(Long fromAccountId, Long toAccountId, BigDecimal amount);
+    void deposit(Long accountId, Money amount);
+
+    void withdraw(Long accountId, Money amount);
+
+    void transfer(Long fromAccountId, Long toAccountId, Money amount);
 
 }
\ No newline at end of file
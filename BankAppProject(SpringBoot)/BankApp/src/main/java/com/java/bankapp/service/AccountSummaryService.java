@@ -0,0 +1,11 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.dto.AccountSummaryDTO;
+
+public interface AccountSummaryService {
+
+    AccountSummaryDTO getSummary(Long accountId);
+
+    int rebuild();
+
+}
@@ -0,0 +1,12 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.dto.BatchTransferResponse;
+import com.java.bankapp.dto.TransferRequest;
+
+import java.util.List;
+
+public interface BatchTransferService {
+
+    BatchTransferResponse transferBatch(List<TransferRequest> requests);
+
+}
@@ -0,0 +1,11 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.dto.ImportResult;
+
+import java.io.InputStream;
+
+public interface CustomerImportService {
+
+    ImportResult importCustomers(InputStream input, String format, String jobId);
+
+}
@@ -0,0 +1,11 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.dto.InterestRunDTO;
+
+import java.time.LocalDate;
+
+public interface InterestService {
+
+    InterestRunDTO accrueInterest(LocalDate accrualDate);
+
+}
@@ -0,0 +1,9 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.dto.ReconciliationRunDTO;
+
+public interface ReconciliationService {
+
+    ReconciliationRunDTO reconcile(boolean incremental);
+
+}
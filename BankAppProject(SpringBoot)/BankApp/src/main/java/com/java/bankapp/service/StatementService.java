@@ -0,0 +1,13 @@
+package com.java.bankapp.service;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface StatementService {
+
+    // Fails before anything is streamed, so a bad request still gets a normal error response
+    void validate(Long accountId, LocalDate from, LocalDate to, String format);
+
+    void writeStatement(Long accountId, LocalDate from, LocalDate to, String format, OutputStream out);
+
+}
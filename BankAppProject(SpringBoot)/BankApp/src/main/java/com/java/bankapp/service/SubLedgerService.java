@@ -0,0 +1,16 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.money.Money;
+
+public interface SubLedgerService {
+
+    void enableSharding(Long accountId, int shardCount);
+
+    Money balanceOf(Account account);
+
+    void credit(Account account, Money amount);
+
+    void debit(Account account, Money amount);
+
+}
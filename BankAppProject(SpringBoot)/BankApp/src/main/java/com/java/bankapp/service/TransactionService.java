@@ -1,13 +1,22 @@
 package com.java.bankapp.service;
 
+import com.java.bankapp.dto.TransactionPageDTO;
 import com.java.bankapp.entity.Transaction;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.money.Money;
 
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface TransactionService {
 
     Transaction recordTransaction(Transaction transaction);
 
-    List<Transaction> getTransactionsByAccount(Long accountId);
+    // Completes with the new row id once it is committed; immediately unless group commit is enabled
+    CompletableFuture<Long> recordTransactionAsync(Transaction transaction);
 
-}
\ No newline at end of file
+    // Completes once the movement is durable: after the caller's commit, and after its group commit batch when enabled
+    CompletableFuture<Void> recordMovement(TransactionType type, Long fromAccountId, Long toAccountId, Money amount);
+
+    TransactionPageDTO getTransactionsByAccount(Long accountId, String cursor, int size);
+
+}
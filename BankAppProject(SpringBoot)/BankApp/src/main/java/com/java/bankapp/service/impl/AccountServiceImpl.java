@@ -1,86 +1,332 @@
 package com.java.bankapp.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.java.bankapp.dto.AccountDTO;
 import com.java.bankapp.entity.Account;
+import com.java.bankapp.entity.AccountStatus;
+import com.java.bankapp.entity.AccountType;
 import com.java.bankapp.entity.Customer;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.id.AccountNumberAllocator;
+import com.java.bankapp.ledger.LedgerEngine;
+import com.java.bankapp.money.Money;
 import com.java.bankapp.repository.AccountRepository;
 import com.java.bankapp.repository.CustomerRepository;
+import com.java.bankapp.retry.OptimisticRetryExecutor;
 import com.java.bankapp.service.AccountService;
+import com.java.bankapp.service.SubLedgerService;
+import com.java.bankapp.service.TransactionService;
+import com.java.bankapp.sharding.ShardedAccountStore;
+import com.java.bankapp.velocity.VelocityEngine;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
     private final CustomerRepository customerRepository;
+    private final TransactionService transactionService;
+    private final SubLedgerService subLedgerService;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<Long, AccountDTO> accountCache;
+    private final LedgerEngine ledgerEngine;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final VelocityEngine velocityEngine;
+    private final ShardedAccountStore shardedStore;
 
-    public AccountServiceImpl(AccountRepository accountRepository, CustomerRepository customerRepository) {
+    public AccountServiceImpl(AccountRepository accountRepository, CustomerRepository customerRepository,
+                              TransactionService transactionService, SubLedgerService subLedgerService,
+                              OptimisticRetryExecutor retryExecutor,
+                              PlatformTransactionManager transactionManager, Cache<Long, AccountDTO> accountCache,
+                              ObjectProvider<LedgerEngine> ledgerEngine,
+                              AccountNumberAllocator accountNumberAllocator,
+                              ObjectProvider<VelocityEngine> velocityEngine,
+                              ObjectProvider<ShardedAccountStore> shardedStore) {
         this.accountRepository = accountRepository;
         this.customerRepository = customerRepository;
+        this.transactionService = transactionService;
+        this.subLedgerService = subLedgerService;
+        this.retryExecutor = retryExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.accountCache = accountCache;
+        this.ledgerEngine = ledgerEngine.getIfAvailable();
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.velocityEngine = velocityEngine.getIfAvailable();
+        this.shardedStore = shardedStore.getIfAvailable();
     }
 
     @Override
-    public Account createAccount(Long customerId) {
+    public AccountDTO createAccount(Long customerId, AccountType accountType) {
         Customer customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
 
+        AccountType type = accountType != null ? accountType : AccountType.SAVINGS;
+
         Account account = new Account();
         account.setCustomer(customer);
-        account.setBalance(BigDecimal.ZERO);
+        account.setAccountNumber(accountNumberAllocator.next(type));
+        account.setBalance(Money.ZERO);
+        account.setAccountType(type);
+        account.setStatus(AccountStatus.ACTIVE);
+
+        account = accountRepository.save(account);
 
-        return accountRepository.save(account);
+        if (shardedStore != null) {
+            shardedStore.createAccount(account.getId());
+        }
+
+        return new AccountDTO(account.getId(), account.getAccountNumber(), account.getBalance(), null,
+                account.getAccountType(), account.getStatus());
     }
 
     @Override
-    public Account getAccount(Long accountId) {
-        Optional<Account> account = accountRepository.findById(accountId);
-        return account.orElseThrow(() -> new RuntimeException("Account not found"));
+    public AccountDTO getAccount(Long accountId) {
+
+        // A load racing with a write is blocked by the write's post-commit invalidate, so a stale balance is never kept
+        AccountDTO cached = accountCache.get(accountId, id -> accountRepository.findDtoById(id)
+                .orElseThrow(() -> new RuntimeException("Account not found")));
+
+        if (ledgerEngine != null || shardedStore != null) {
+            AccountDTO result = new AccountDTO();
+            result.setId(cached.getId());
+            result.setAccountNumber(cached.getAccountNumber());
+            result.setBalance(shardedStore != null
+                    ? shardedStore.getBalance(accountId)
+                    : ledgerEngine.getBalance(accountId));
+            result.setAccountType(cached.getAccountType());
+            result.setStatus(cached.getStatus());
+            return result;
+        }
+
+        return cached;
     }
 
     @Override
-    @Transactional
-    public void deposit(Long accountId, BigDecimal amount) {
+    public AccountDTO getAccountByNumber(String accountNumber) {
+
+        // A mistyped number fails the check digit without reaching the database
+        if (!AccountNumberAllocator.isValid(accountNumber)) {
+            throw new RuntimeException("Invalid account number");
+        }
 
-        Account account = accountRepository.findById(accountId)
+        Long accountId = accountRepository.findIdByAccountNumber(accountNumber)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
 
-        account.setBalance(account.getBalance().add(amount));
+        return getAccount(accountId);
+    }
 
+    @Override
+    public List<AccountDTO> getAccountsByCustomer(Long customerId) {
+
+        // Served from the query cache and the account region once warm
+        List<Account> accounts = accountRepository.findByCustomerId(customerId);
+        if (accounts.isEmpty() && customerRepository.findById(customerId).isEmpty()) {
+            throw new RuntimeException("Customer not found");
+        }
+
+        return accounts.stream()
+                .map(account -> {
+                    AccountDTO dto = new AccountDTO(account.getId(), account.getAccountNumber(),
+                            subLedgerService.balanceOf(account), null, account.getAccountType(), account.getStatus());
+                    if (shardedStore != null) {
+                        dto.setBalance(shardedStore.getBalance(account.getId()));
+                    } else if (ledgerEngine != null) {
+                        dto.setBalance(ledgerEngine.getBalance(account.getId()));
+                    }
+                    return dto;
+                })
+                .toList();
     }
 
     @Override
-    @Transactional
-    public void withdraw(Long accountId, BigDecimal amount) {
+    public void deposit(Long accountId, Money amount) {
 
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
+        requirePositive(amount);
+
+        if (shardedStore != null) {
+            shardedStore.deposit(accountId, amount);
+            return;
+        }
 
-        if (account.getBalance().compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient balance");
+        if (ledgerEngine != null) {
+            ledgerEngine.deposit(accountId, amount);
+            recordLedgerMovement(TransactionType.DEPOSIT, null, accountId, amount);
+            return;
         }
 
-        account.setBalance(account.getBalance().subtract(amount));
+        AtomicReference<CompletableFuture<Void>> recorded = new AtomicReference<>();
+        retryExecutor.execute(accountId, pessimistic -> recorded.set(transactionTemplate.execute(status -> {
+
+            Account account = load(accountId, pessimistic, "Account not found");
+
+            subLedgerService.credit(account, amount);
+
+            return transactionService.recordMovement(TransactionType.DEPOSIT, null, accountId, amount);
+        })));
+
+        accountCache.invalidate(accountId);
+        awaitRecorded(recorded.get());
     }
 
     @Override
-    @Transactional
-    public void transfer(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+    public void withdraw(Long accountId, Money amount) {
+
+        requirePositive(amount);
 
-        Account from = accountRepository.findById(fromAccountId)
-                .orElseThrow(() -> new RuntimeException("Sender account not found"));
+        long reservedAt = reserveVelocity(accountId, amount);
+        try {
+            withdrawNow(accountId, amount);
+        } catch (RuntimeException e) {
+            releaseVelocity(accountId, reservedAt, amount);
+            throw e;
+        }
+    }
+
+    @Override
+    public void transfer(Long fromAccountId, Long toAccountId, Money amount) {
 
-        Account to = accountRepository.findById(toAccountId)
-                .orElseThrow(() -> new RuntimeException("Receiver account not found"));
+        requirePositive(amount);
 
-        if (from.getBalance().compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient balance");
+        long reservedAt = reserveVelocity(fromAccountId, amount);
+        try {
+            transferNow(fromAccountId, toAccountId, amount);
+        } catch (RuntimeException e) {
+            releaseVelocity(fromAccountId, reservedAt, amount);
+            throw e;
         }
+    }
+
+    private void withdrawNow(Long accountId, Money amount) {
+
+        if (shardedStore != null) {
+            shardedStore.withdraw(accountId, amount);
+            return;
+        }
+
+        if (ledgerEngine != null) {
+            ledgerEngine.withdraw(accountId, amount);
+            recordLedgerMovement(TransactionType.WITHDRAW, accountId, null, amount);
+            return;
+        }
+
+        AtomicReference<CompletableFuture<Void>> recorded = new AtomicReference<>();
+        retryExecutor.execute(accountId, pessimistic -> recorded.set(transactionTemplate.execute(status -> {
+
+            Account account = load(accountId, pessimistic, "Account not found");
+
+            subLedgerService.debit(account, amount);
+
+            return transactionService.recordMovement(TransactionType.WITHDRAW, accountId, null, amount);
+        })));
+
+        accountCache.invalidate(accountId);
+        awaitRecorded(recorded.get());
+    }
+
+    private void transferNow(Long fromAccountId, Long toAccountId, Money amount) {
+
+        // Movements are recorded in the shard databases, not in the Transaction table
+        if (shardedStore != null) {
+            shardedStore.transfer(fromAccountId, toAccountId, amount);
+            return;
+        }
+
+        if (ledgerEngine != null) {
+            ledgerEngine.transfer(fromAccountId, toAccountId, amount);
+            recordLedgerMovement(TransactionType.TRANSFER, fromAccountId, toAccountId, amount);
+            return;
+        }
+
+        AtomicReference<CompletableFuture<Void>> recorded = new AtomicReference<>();
+        retryExecutor.execute(fromAccountId, pessimistic -> recorded.set(transactionTemplate.execute(status -> {
+
+            Account from;
+            Account to;
+
+            // Row locks are always taken lowest id first
+            if (pessimistic && toAccountId < fromAccountId) {
+                to = load(toAccountId, true, "Receiver account not found");
+                from = load(fromAccountId, true, "Sender account not found");
+            } else {
+                from = load(fromAccountId, pessimistic, "Sender account not found");
+                to = load(toAccountId, pessimistic, "Receiver account not found");
+            }
+
+            subLedgerService.debit(from, amount);
+            subLedgerService.credit(to, amount);
+
+            return transactionService.recordMovement(TransactionType.TRANSFER, fromAccountId, toAccountId, amount);
+        })));
+
+        accountCache.invalidate(fromAccountId);
+        accountCache.invalidate(toAccountId);
+        awaitRecorded(recorded.get());
+    }
+
+    // The ledger cell has already changed; if the row or its commit fails, put the cell back
+    private void recordLedgerMovement(TransactionType type, Long fromAccountId, Long toAccountId, Money amount) {
+
+        // The ledger already appended it to the journal before changing the cell
+        if (ledgerEngine.isJournalled()) {
+            return;
+        }
+
+        // Awaited, so a row lost by group commit is reversed like any other failed recording
+        try {
+            transactionTemplate.execute(status ->
+                    transactionService.recordMovement(type, fromAccountId, toAccountId, amount)).join();
+        } catch (RuntimeException e) {
+            ledgerEngine.reverse(fromAccountId, toAccountId, amount);
+            throw e instanceof CompletionException && e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // The balance change has committed by now and cannot be undone, but a movement the journal
+    // or group commit failed to record is reported to the caller instead of only being logged
+    private static void awaitRecorded(CompletableFuture<Void> recorded) {
+        try {
+            recorded.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Checked in memory before any database work, so a burst is refused without touching the database
+    private long reserveVelocity(Long accountId, Money amount) {
+        return velocityEngine != null && accountId != null
+                ? velocityEngine.reserve(accountId, amount)
+                : -1;
+    }
+
+    // A negative amount would move money the other way in every mode, so it is refused up front
+    private static void requirePositive(Money amount) {
+        if (amount == null || !amount.isPositive()) {
+            throw new RuntimeException("Amount must be positive");
+        }
+    }
+
+    private void releaseVelocity(Long accountId, long reservedAt, Money amount) {
+        if (velocityEngine != null) {
+            velocityEngine.release(accountId, reservedAt, amount);
+        }
+    }
+
+    private Account load(Long accountId, boolean pessimistic, String notFoundMessage) {
 
-        from.setBalance(from.getBalance().subtract(amount));
-        to.setBalance(to.getBalance().add(amount));
+        Optional<Account> account = pessimistic
+                ? accountRepository.findByIdForUpdate(accountId)
+                : accountRepository.findById(accountId);
 
+        return account.orElseThrow(() -> new RuntimeException(notFoundMessage));
     }
 }
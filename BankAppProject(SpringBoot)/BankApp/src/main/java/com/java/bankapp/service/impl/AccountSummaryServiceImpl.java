@@ -0,0 +1,73 @@
+package com.java.bankapp.service.impl;
+
+import com.java.bankapp.dto.AccountSummaryDTO;
+import com.java.bankapp.dto.TypeSummaryDTO;
+import com.java.bankapp.entity.AccountSummary;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.repository.AccountSummaryRepository;
+import com.java.bankapp.service.AccountSummaryService;
+import com.java.bankapp.summary.AccountSummaryWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Serves per-account totals from the {@code account_summary} read model, which every
+ * transaction writer keeps current in its own database transaction. A lookup reads at
+ * most one row per transaction type, however long the account's history is.
+ */
+@Service
+public class AccountSummaryServiceImpl implements AccountSummaryService {
+
+    private final AccountSummaryRepository summaryRepository;
+    private final AccountRepository accountRepository;
+    private final AccountSummaryWriter summaryWriter;
+
+    public AccountSummaryServiceImpl(AccountSummaryRepository summaryRepository,
+                                     AccountRepository accountRepository,
+                                     AccountSummaryWriter summaryWriter) {
+        this.summaryRepository = summaryRepository;
+        this.accountRepository = accountRepository;
+        this.summaryWriter = summaryWriter;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AccountSummaryDTO getSummary(Long accountId) {
+
+        List<AccountSummary> rows = summaryRepository.findByAccountId(accountId);
+        if (rows.isEmpty() && !accountRepository.existsById(accountId)) {
+            throw new RuntimeException("Account not found");
+        }
+
+        AccountSummaryDTO summary = new AccountSummaryDTO();
+        summary.setAccountId(accountId);
+        summary.setTotalIn(Money.ZERO);
+        summary.setTotalOut(Money.ZERO);
+
+        for (AccountSummary row : rows) {
+            TypeSummaryDTO type = new TypeSummaryDTO();
+            type.setTotalIn(row.getTotalIn());
+            type.setTotalOut(row.getTotalOut());
+            type.setTransactionCount(row.getTransactionCount());
+            type.setLastActivityAt(row.getLastActivityAt());
+            summary.getByType().put(row.getTransactionType(), type);
+
+            summary.setTotalIn(summary.getTotalIn().plus(row.getTotalIn()));
+            summary.setTotalOut(summary.getTotalOut().plus(row.getTotalOut()));
+            summary.setTransactionCount(summary.getTransactionCount() + row.getTransactionCount());
+            if (summary.getLastActivityAt() == null || row.getLastActivityAt().isAfter(summary.getLastActivityAt())) {
+                summary.setLastActivityAt(row.getLastActivityAt());
+            }
+        }
+
+        return summary;
+    }
+
+    @Override
+    public int rebuild() {
+        return summaryWriter.rebuild();
+    }
+}
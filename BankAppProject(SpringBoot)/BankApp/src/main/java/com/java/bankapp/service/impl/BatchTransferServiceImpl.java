@@ -0,0 +1,286 @@
+package com.java.bankapp.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.java.bankapp.dto.AccountDTO;
+import com.java.bankapp.config.BatchProperties;
+import com.java.bankapp.dto.BatchTransferResponse;
+import com.java.bankapp.dto.TransferRequest;
+import com.java.bankapp.dto.TransferResult;
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.ledger.LedgerEngine;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.retry.OptimisticRetryExecutor;
+import com.java.bankapp.service.BatchTransferService;
+import com.java.bankapp.service.SubLedgerService;
+import com.java.bankapp.service.TransactionService;
+import com.java.bankapp.sharding.ShardedAccountStore;
+import com.java.bankapp.velocity.VelocityEngine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class BatchTransferServiceImpl implements BatchTransferService {
+
+    private final AccountRepository accountRepository;
+    private final TransactionService transactionService;
+    private final SubLedgerService subLedgerService;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchProperties batchProperties;
+    private final Cache<Long, AccountDTO> accountCache;
+    private final LedgerEngine ledgerEngine;
+    private final VelocityEngine velocityEngine;
+    private final ShardedAccountStore shardedStore;
+
+    public BatchTransferServiceImpl(AccountRepository accountRepository,
+                                    TransactionService transactionService,
+                                    SubLedgerService subLedgerService,
+                                    OptimisticRetryExecutor retryExecutor,
+                                    PlatformTransactionManager transactionManager,
+                                    BatchProperties batchProperties,
+                                    Cache<Long, AccountDTO> accountCache,
+                                    ObjectProvider<LedgerEngine> ledgerEngine,
+                                    ObjectProvider<VelocityEngine> velocityEngine,
+                                    ObjectProvider<ShardedAccountStore> shardedStore) {
+        this.accountRepository = accountRepository;
+        this.transactionService = transactionService;
+        this.subLedgerService = subLedgerService;
+        this.retryExecutor = retryExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchProperties = batchProperties;
+        this.accountCache = accountCache;
+        this.ledgerEngine = ledgerEngine.getIfAvailable();
+        this.velocityEngine = velocityEngine.getIfAvailable();
+        this.shardedStore = shardedStore.getIfAvailable();
+    }
+
+    @Override
+    public BatchTransferResponse transferBatch(List<TransferRequest> requests) {
+
+        long start = System.nanoTime();
+        int chunkSize = Math.max(1, batchProperties.getChunkSize());
+
+        List<TransferResult> results = new ArrayList<>(requests.size());
+
+        for (int offset = 0; offset < requests.size(); offset += chunkSize) {
+            List<TransferRequest> chunk = requests.subList(offset, Math.min(offset + chunkSize, requests.size()));
+            results.addAll(applyChunk(chunk, offset));
+
+            Set<Long> touched = new HashSet<>();
+            for (TransferRequest request : chunk) {
+                if (request != null) {
+                    touched.add(request.getFromAccountId());
+                    touched.add(request.getToAccountId());
+                }
+            }
+            touched.remove(null);
+            accountCache.invalidateAll(touched);
+        }
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        int succeeded = (int) results.stream().filter(TransferResult::isSuccess).count();
+
+        BatchTransferResponse response = new BatchTransferResponse();
+        response.setTotal(results.size());
+        response.setSucceeded(succeeded);
+        response.setFailed(results.size() - succeeded);
+        response.setElapsedMillis(elapsedNanos / 1_000_000);
+        response.setTransfersPerSecond(results.size() * 1_000_000_000.0 / elapsedNanos);
+        response.setResults(results);
+
+        return response;
+    }
+
+    private List<TransferResult> applyChunk(List<TransferRequest> chunk, int offset) {
+
+        List<TransferResult> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(newResult(chunk.get(i), offset + i));
+        }
+
+        if (velocityEngine == null) {
+            apply(results);
+            return results;
+        }
+
+        // Transfers refused by the velocity check keep their error and stay out of the chunk
+        List<TransferResult> admitted = new ArrayList<>(results.size());
+        List<Long> reservations = new ArrayList<>(results.size());
+        for (TransferResult result : results) {
+            if (!validate(result)) {
+                continue;
+            }
+            try {
+                reservations.add(velocityEngine.reserve(result.getFromAccountId(), result.getAmount()));
+                admitted.add(result);
+            } catch (RuntimeException e) {
+                result.setError(e.getMessage());
+            }
+        }
+
+        try {
+            apply(admitted);
+        } finally {
+            for (int i = 0; i < admitted.size(); i++) {
+                TransferResult result = admitted.get(i);
+                if (!result.isSuccess()) {
+                    velocityEngine.release(result.getFromAccountId(), reservations.get(i), result.getAmount());
+                }
+            }
+        }
+
+        return results;
+    }
+
+    private void apply(List<TransferResult> results) {
+
+        // Each transfer is its own local transaction or saga, so a chunk cannot roll back as one
+        if (shardedStore != null) {
+            for (TransferResult result : results) {
+                if (validate(result)) {
+                    try {
+                        shardedStore.transfer(result.getFromAccountId(), result.getToAccountId(), result.getAmount());
+                        result.setSuccess(true);
+                    } catch (RuntimeException e) {
+                        result.setError(e.getMessage());
+                    }
+                }
+            }
+            return;
+        }
+
+        if (ledgerEngine != null) {
+            List<TransferResult> recording = new ArrayList<>();
+            List<CompletableFuture<Void>> recorded = new ArrayList<>();
+
+            for (TransferResult result : results) {
+                if (validate(result)) {
+                    try {
+                        ledgerEngine.transfer(result.getFromAccountId(), result.getToAccountId(), result.getAmount());
+                    } catch (RuntimeException e) {
+                        result.setError(e.getMessage());
+                        continue;
+                    }
+                    // With the journal on, the ledger has already appended the transfer
+                    if (ledgerEngine.isJournalled()) {
+                        result.setSuccess(true);
+                        continue;
+                    }
+                    try {
+                        // One transaction per transfer, as in AccountServiceImpl, so the row and its summary commit together
+                        recorded.add(transactionTemplate.execute(status -> transactionService.recordMovement(
+                                TransactionType.TRANSFER, result.getFromAccountId(), result.getToAccountId(), result.getAmount())));
+                        recording.add(result);
+                    } catch (RuntimeException e) {
+                        ledgerEngine.reverse(result.getFromAccountId(), result.getToAccountId(), result.getAmount());
+                        result.setError(e.getMessage());
+                    }
+                }
+            }
+
+            // Awaited together, so group commit can put the whole chunk in few batches
+            for (int i = 0; i < recording.size(); i++) {
+                TransferResult result = recording.get(i);
+                try {
+                    recorded.get(i).join();
+                    result.setSuccess(true);
+                } catch (CompletionException e) {
+                    ledgerEngine.reverse(result.getFromAccountId(), result.getToAccountId(), result.getAmount());
+                    result.setError(e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                }
+            }
+            return;
+        }
+
+        try {
+            retryExecutor.execute(null, pessimistic -> transactionTemplate.executeWithoutResult(status -> {
+
+                // From the results, which stand in for null requests too
+                Set<Long> ids = new HashSet<>();
+                for (TransferResult result : results) {
+                    ids.add(result.getFromAccountId());
+                    ids.add(result.getToAccountId());
+                }
+                ids.remove(null);
+
+                // One SELECT for the whole chunk; the dirty accounts are written back as one JDBC batch on commit
+                List<Account> loaded = pessimistic
+                        ? accountRepository.findAllByIdForUpdate(ids)
+                        : accountRepository.findAllById(ids);
+                Map<Long, Account> accounts = loaded.stream()
+                        .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+                for (TransferResult result : results) {
+                    result.setSuccess(false);
+                    result.setError(null);
+
+                    if (!validate(result)) {
+                        continue;
+                    }
+
+                    Account from = accounts.get(result.getFromAccountId());
+                    Account to = accounts.get(result.getToAccountId());
+
+                    if (from == null) {
+                        result.setError("Sender account not found");
+                    } else if (to == null) {
+                        result.setError("Receiver account not found");
+                    } else if (subLedgerService.balanceOf(from).isLessThan(result.getAmount())) {
+                        result.setError("Insufficient balance");
+                    } else {
+                        subLedgerService.debit(from, result.getAmount());
+                        subLedgerService.credit(to, result.getAmount());
+                        transactionService.recordMovement(TransactionType.TRANSFER,
+                                from.getId(), to.getId(), result.getAmount());
+                        result.setSuccess(true);
+                    }
+                }
+            }));
+        } catch (RuntimeException e) {
+            for (TransferResult result : results) {
+                result.setSuccess(false);
+                result.setError("Chunk rolled back: " + e.getMessage());
+            }
+        }
+    }
+
+    private TransferResult newResult(TransferRequest request, int index) {
+
+        TransferResult result = new TransferResult();
+        result.setIndex(index);
+        if (request != null) {
+            result.setFromAccountId(request.getFromAccountId());
+            result.setToAccountId(request.getToAccountId());
+            result.setAmount(request.getAmount());
+        }
+        return result;
+    }
+
+    private boolean validate(TransferResult result) {
+
+        if (result.getFromAccountId() == null || result.getToAccountId() == null) {
+            result.setError("Account ids are required");
+            return false;
+        }
+
+        if (result.getAmount() == null || !result.getAmount().isPositive()) {
+            result.setError("Amount must be positive");
+            return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,321 @@
+package com.java.bankapp.service.impl;
+
+import com.java.bankapp.config.ImportProperties;
+import com.java.bankapp.dto.ImportResult;
+import com.java.bankapp.entity.Customer;
+import com.java.bankapp.entity.ImportCheckpoint;
+import com.java.bankapp.repository.CustomerRepository;
+import com.java.bankapp.repository.ImportCheckpointRepository;
+import com.java.bankapp.service.CustomerImportService;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Streams a CSV (with a header line) or NDJSON customer file line by line. Valid rows are
+ * inserted in chunks, one transaction per chunk, as JDBC batches using ids from the pooled
+ * {@code customer_seq}. Rejected rows are appended to {@code <jobId>.rejects.csv} and forced to
+ * disk before the chunk commits. The same transaction saves an {@link ImportCheckpoint} with
+ * the last processed line and the reject file length, so re-posting the same file with the
+ * same job id resumes after that line and drops reject lines of a chunk that never committed.
+ */
+@Service
+public class CustomerImportServiceImpl implements CustomerImportService {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern JOB_ID = Pattern.compile("^[A-Za-z0-9_-]{1,64}$");
+
+    private final CustomerRepository customerRepository;
+    private final ImportCheckpointRepository checkpointRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+    private final ImportProperties properties;
+
+    public CustomerImportServiceImpl(CustomerRepository customerRepository,
+                                     ImportCheckpointRepository checkpointRepository,
+                                     EntityManager entityManager,
+                                     PlatformTransactionManager transactionManager,
+                                     JsonMapper jsonMapper,
+                                     ImportProperties properties) {
+        this.customerRepository = customerRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jsonMapper = jsonMapper;
+        this.properties = properties;
+    }
+
+    private record Row(long lineNumber, String raw) {
+    }
+
+    @Override
+    public ImportResult importCustomers(InputStream input, String format, String jobId) {
+
+        boolean csv = !"ndjson".equalsIgnoreCase(format);
+        if (csv && !"csv".equalsIgnoreCase(format)) {
+            throw new RuntimeException("Unsupported import format: " + format);
+        }
+
+        String id = jobId == null || jobId.isBlank() ? UUID.randomUUID().toString() : jobId;
+        if (!JOB_ID.matcher(id).matches()) {
+            throw new RuntimeException("Invalid job id");
+        }
+
+        long start = System.nanoTime();
+        int chunkSize = Math.max(1, properties.getChunkSize());
+
+        try {
+            Path directory = Files.createDirectories(Path.of(properties.getDirectory()));
+            Path rejectFile = directory.resolve(id + ".rejects.csv");
+            ImportCheckpoint checkpoint = checkpointRepository.findById(id).orElseGet(() -> new ImportCheckpoint(id));
+
+            ImportResult result = new ImportResult();
+            result.setJobId(id);
+            result.setRejectFile(rejectFile.toString());
+            result.setResumedAfterLine(checkpoint.getLastLine());
+            result.setImported(checkpoint.getImported());
+            result.setRejected(checkpoint.getRejected());
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+                 FileChannel rejects = FileChannel.open(rejectFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+
+                // Anything past the checkpointed length belongs to a chunk whose transaction never committed
+                rejects.truncate(checkpoint.getRejectBytes());
+                rejects.position(rejects.size());
+
+                String[] header = null;
+                List<Row> chunk = new ArrayList<>(chunkSize);
+                long lineNumber = 0;
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+
+                    if (csv && header == null) {
+                        header = splitCsv(line);
+                        continue;
+                    }
+                    if (lineNumber <= result.getResumedAfterLine() || line.isBlank()) {
+                        continue;
+                    }
+
+                    chunk.add(new Row(lineNumber, line));
+                    if (chunk.size() == chunkSize) {
+                        processChunk(chunk, header, rejects, checkpoint, result);
+                        chunk.clear();
+                    }
+                }
+
+                if (!chunk.isEmpty()) {
+                    processChunk(chunk, header, rejects, checkpoint, result);
+                }
+                result.setLinesRead(lineNumber);
+            }
+
+            result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Customer import " + id + " failed", e);
+        }
+    }
+
+    private void processChunk(List<Row> chunk, String[] header, FileChannel rejects,
+                              ImportCheckpoint checkpoint, ImportResult result) throws IOException {
+
+        List<Customer> customers = new ArrayList<>(chunk.size());
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        List<String> rejected = new ArrayList<>();
+        Set<String> emails = new HashSet<>();
+
+        for (Row row : chunk) {
+            try {
+                Customer customer = toCustomer(header != null ? parseCsv(header, row.raw()) : parseJson(row.raw()));
+                if (!emails.add(customer.getEmail())) {
+                    throw new IllegalArgumentException("duplicate email in file");
+                }
+                customers.add(customer);
+                accepted.add(row);
+            } catch (RuntimeException e) {
+                rejected.add(rejectLine(row, e.getMessage()));
+            }
+        }
+
+        // One IN query per chunk instead of an existsByEmail round trip per row
+        Set<String> existing = emails.isEmpty() ? Set.of() : customerRepository.findExistingEmails(emails);
+        if (!existing.isEmpty()) {
+            List<Customer> fresh = new ArrayList<>(customers.size());
+            for (int i = 0; i < customers.size(); i++) {
+                if (existing.contains(customers.get(i).getEmail())) {
+                    rejected.add(rejectLine(accepted.get(i), "email already exists"));
+                } else {
+                    fresh.add(customers.get(i));
+                }
+            }
+            customers = fresh;
+        }
+
+        StringBuilder lines = new StringBuilder();
+        for (String reject : rejected) {
+            lines.append(reject).append(System.lineSeparator());
+        }
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(lines.toString());
+        while (bytes.hasRemaining()) {
+            rejects.write(bytes);
+        }
+        rejects.force(false);
+
+        List<Customer> toInsert = customers;
+        checkpoint.setLastLine(chunk.get(chunk.size() - 1).lineNumber());
+        checkpoint.setImported(checkpoint.getImported() + toInsert.size());
+        checkpoint.setRejected(checkpoint.getRejected() + rejected.size());
+        checkpoint.setRejectBytes(rejects.position());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Customer customer : toInsert) {
+                    entityManager.persist(customer);
+                }
+                entityManager.merge(checkpoint);
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Import stopped at line " + chunk.get(0).lineNumber()
+                    + ", resume with the same job id: " + e.getMessage(), e);
+        }
+
+        result.setImported(checkpoint.getImported());
+        result.setRejected(checkpoint.getRejected());
+    }
+
+    private Customer toCustomer(Map<String, String> fields) {
+
+        String firstName = trimToNull(fields.get("firstName"));
+        String email = trimToNull(fields.get("email"));
+
+        if (firstName == null) {
+            throw new IllegalArgumentException("firstName is required");
+        }
+        if (email == null || !EMAIL.matcher(email).matches()) {
+            throw new IllegalArgumentException("invalid email");
+        }
+
+        Customer customer = new Customer();
+        customer.setFirstName(firstName);
+        customer.setLastName(trimToNull(fields.get("lastName")));
+        customer.setEmail(email.toLowerCase());
+        customer.setPhone(trimToNull(fields.get("phone")));
+        customer.setAddress(trimToNull(fields.get("address")));
+        customer.setPanNumber(trimToNull(fields.get("panNumber")));
+
+        String dateOfBirth = trimToNull(fields.get("dateOfBirth"));
+        if (dateOfBirth != null) {
+            try {
+                customer.setDateOfBirth(LocalDate.parse(dateOfBirth));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("invalid dateOfBirth");
+            }
+        }
+
+        return customer;
+    }
+
+    private Map<String, String> parseCsv(String[] header, String line) {
+
+        String[] values = splitCsv(line);
+        if (values.length != header.length) {
+            throw new IllegalArgumentException("expected " + header.length + " columns but found " + values.length);
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            fields.put(header[i].trim(), values[i]);
+        }
+        return fields;
+    }
+
+    private Map<String, String> parseJson(String line) {
+
+        Map<?, ?> json;
+        try {
+            json = jsonMapper.readValue(line, Map.class);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("malformed JSON");
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        json.forEach((key, value) -> fields.put(String.valueOf(key), value != null ? String.valueOf(value) : null));
+        return fields;
+    }
+
+    // Splits one CSV record, honouring double-quoted fields and "" escapes
+    private String[] splitCsv(String line) {
+
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        values.add(current.toString());
+        return values.toArray(new String[0]);
+    }
+
+    private String rejectLine(Row row, String reason) {
+        return row.lineNumber() + ",\"" + reason.replace("\"", "\"\"") + "\",\"" + row.raw().replace("\"", "\"\"") + "\"";
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -1,5 +1,6 @@
 package com.java.bankapp.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.java.bankapp.dto.CustomerDTO;
 import com.java.bankapp.entity.Customer;
 import com.java.bankapp.repository.CustomerRepository;
@@ -13,9 +14,11 @@ import java.util.stream.Collectors;
 public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final Cache<Long, CustomerDTO> customerCache;
 
-    public CustomerServiceImpl(CustomerRepository customerRepository) {
+    public CustomerServiceImpl(CustomerRepository customerRepository, Cache<Long, CustomerDTO> customerCache) {
         this.customerRepository = customerRepository;
+        this.customerCache = customerCache;
     }
 
     @Override
@@ -37,17 +40,20 @@ public class CustomerServiceImpl implements CustomerService {
     @Override
     public CustomerDTO getCustomerById(Long id) {
 
-        Customer customer = customerRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Customer not found"));
+        return customerCache.get(id, key -> {
 
-        CustomerDTO dto = new CustomerDTO();
+            Customer customer = customerRepository.findById(key)
+                    .orElseThrow(() -> new RuntimeException("Customer not found"));
 
-        dto.setId(customer.getId());
-        dto.setFirstName(customer.getFirstName());
-        dto.setLastName(customer.getLastName());
-        dto.setEmail(customer.getEmail());
+            CustomerDTO dto = new CustomerDTO();
 
-        return dto;
+            dto.setId(customer.getId());
+            dto.setFirstName(customer.getFirstName());
+            dto.setLastName(customer.getLastName());
+            dto.setEmail(customer.getEmail());
+
+            return dto;
+        });
     }
     @Override
     public List<CustomerDTO> getAllCustomers() {
@@ -81,6 +87,7 @@ public class CustomerServiceImpl implements CustomerService {
         existingCustomer.setPhone(updatedCustomerDTO.getPhone());
 
         Customer savedCustomer = customerRepository.save(existingCustomer);
+        customerCache.invalidate(id);
 
         // Convert entity → DTO
         CustomerDTO dto = new CustomerDTO();
@@ -101,5 +108,6 @@ public class CustomerServiceImpl implements CustomerService {
         }
 
         customerRepository.deleteById(id);
+        customerCache.invalidate(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,333 @@
+package com.java.bankapp.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.java.bankapp.config.InterestProperties;
+import com.java.bankapp.dto.AccountDTO;
+import com.java.bankapp.dto.InterestRunDTO;
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.entity.AccountType;
+import com.java.bankapp.entity.ProjectionCheckpoint;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.id.SequenceIdAllocator;
+import com.java.bankapp.ledger.LedgerEngine;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.ProjectionCheckpointRepository;
+import com.java.bankapp.service.InterestService;
+import com.java.bankapp.sharding.ShardedAccountStore;
+import com.java.bankapp.summary.AccountSummaryWriter;
+import com.java.bankapp.summary.SummaryDelta;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Credits one day of interest to every active account whose type has a rate. The id
+ * space is split into contiguous ranges that run concurrently on virtual threads; each
+ * range is walked in keyset pages, and every page is read, credited with one JDBC batch,
+ * journalled as INTEREST transactions with a second batch, and checkpointed in a single
+ * database transaction. A rerun of the same day resumes after each range's checkpoint,
+ * and {@code Account.interestAccruedOn} keeps any account from being credited twice.
+ */
+@Service
+public class InterestServiceImpl implements InterestService {
+
+    private static final Logger log = LoggerFactory.getLogger(InterestServiceImpl.class);
+
+    private static final long BPS_SCALE = 10_000;
+
+    private static final String SELECT_PAGE = """
+            select a.id, a.account_type,
+                   a.balance + case when a.shard_count > 0
+                       then (select coalesce(sum(s.balance), 0) from account_shard s where s.account_id = a.id)
+                       else 0 end
+            from account a
+            where a.id > ? and a.id <= ?
+              and a.account_type in (%s)
+              and (a.status is null or a.status = 'ACTIVE')
+              and (a.interest_accrued_on is null or a.interest_accrued_on < ?)
+            order by a.id
+            limit ?
+            """;
+
+    private static final String CREDIT = """
+            update account
+            set balance = balance + ?, version = coalesce(version, 0) + 1, interest_accrued_on = ?
+            where id = ?
+            """;
+
+    private static final String INSERT_TRANSACTION = """
+            insert into transaction (id, transaction_type, amount, description, transaction_date, to_account_id)
+            values (?, ?, ?, ?, ?, ?)
+            """;
+
+    private record Partition(int index, long afterId, long upToId) {
+    }
+
+    private record Accrual(long accountId, long interest) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator idAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final ProjectionCheckpointRepository checkpointRepository;
+    private final InterestProperties properties;
+    private final Cache<Long, AccountDTO> accountCache;
+    private final AccountSummaryWriter summaryWriter;
+    private final EntityManagerFactory entityManagerFactory;
+    private final boolean ledgerMode;
+    private final boolean shardedMode;
+
+    private final ReentrantLock running = new ReentrantLock();
+
+    public InterestServiceImpl(JdbcTemplate jdbcTemplate,
+                               SequenceIdAllocator idAllocator,
+                               PlatformTransactionManager transactionManager,
+                               ProjectionCheckpointRepository checkpointRepository,
+                               InterestProperties properties,
+                               Cache<Long, AccountDTO> accountCache,
+                               ObjectProvider<LedgerEngine> ledgerEngine,
+                               ObjectProvider<ShardedAccountStore> shardedStore,
+                               AccountSummaryWriter summaryWriter,
+                               EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.checkpointRepository = checkpointRepository;
+        this.properties = properties;
+        this.accountCache = accountCache;
+        this.summaryWriter = summaryWriter;
+        this.entityManagerFactory = entityManagerFactory;
+        this.ledgerMode = ledgerEngine.getIfAvailable() != null;
+        this.shardedMode = shardedStore.getIfAvailable() != null;
+    }
+
+    @Scheduled(cron = "${bankapp.interest.cron:-}")
+    public void accrueNightly() {
+        try {
+            InterestRunDTO run = accrueInterest(LocalDate.now());
+            log.info("Accrued {} interest on {} accounts in {} ms",
+                    run.getTotalInterest(), run.getAccountsAccrued(), run.getElapsedMillis());
+        } catch (RuntimeException e) {
+            log.error("Nightly interest accrual failed, a rerun resumes from the checkpoints: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public InterestRunDTO accrueInterest(LocalDate accrualDate) {
+
+        if (ledgerMode) {
+            throw new RuntimeException("Interest accrual is not available while the in-memory ledger is enabled");
+        }
+
+        if (shardedMode) {
+            throw new RuntimeException("Interest accrual is not available while balances are kept in shard databases");
+        }
+
+        if (!running.tryLock()) {
+            throw new RuntimeException("Interest accrual is already running");
+        }
+
+        try {
+            long start = System.nanoTime();
+            LongAdder accounts = new LongAdder();
+            LongAdder interest = new LongAdder();
+
+            Map<AccountType, Integer> rates = properties.getAnnualRateBps().entrySet().stream()
+                    .filter(entry -> entry.getValue() != null && entry.getValue() > 0)
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+            List<Partition> partitions = rates.isEmpty() ? List.of() : partition(accrualDate);
+
+            if (!partitions.isEmpty()) {
+                String selectPage = SELECT_PAGE.formatted(rates.keySet().stream()
+                        .map(type -> "'" + type.name() + "'")
+                        .collect(Collectors.joining(", ")));
+
+                try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+                    List<Future<?>> futures = new ArrayList<>();
+                    for (Partition partition : partitions) {
+                        futures.add(pool.submit(() ->
+                                accruePartition(partition, selectPage, rates, accrualDate, accounts, interest)));
+                    }
+                    waitFor(futures);
+                }
+            }
+
+            InterestRunDTO run = new InterestRunDTO();
+            run.setAccrualDate(accrualDate);
+            run.setPartitions(partitions.size());
+            run.setAccountsAccrued(accounts.sum());
+            run.setTotalInterest(Money.ofMinor(interest.sum()));
+            run.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            return run;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    /**
+     * Splits {@code (minId - 1, maxId]} into equal ranges. The upper bound is recorded on the
+     * first run of a day, so a resumed run sees the same ranges even after new accounts.
+     */
+    private List<Partition> partition(LocalDate accrualDate) {
+
+        String runName = "interest-" + accrualDate;
+
+        ProjectionCheckpoint run = checkpointRepository.findById(runName).orElseGet(() -> {
+            Long maxId = jdbcTemplate.queryForObject("select max(id) from account", Long.class);
+            ProjectionCheckpoint checkpoint = new ProjectionCheckpoint(runName);
+            checkpoint.setPosition(maxId != null ? maxId : 0);
+            return checkpointRepository.save(checkpoint);
+        });
+
+        Long minId = jdbcTemplate.queryForObject("select min(id) from account", Long.class);
+        long upper = run.getPosition();
+        if (minId == null || upper < minId) {
+            return List.of();
+        }
+
+        int count = Math.max(1, properties.getPartitions());
+        long lower = minId - 1;
+        long span = Math.max(1, (upper - lower + count - 1) / count);
+
+        List<Partition> partitions = new ArrayList<>(count);
+        for (int i = 0; i < count && lower + (long) i * span < upper; i++) {
+            partitions.add(new Partition(i, lower + i * span, Math.min(upper, lower + (i + 1) * span)));
+        }
+        return partitions;
+    }
+
+    private void accruePartition(Partition partition, String selectPage, Map<AccountType, Integer> rates,
+                                 LocalDate accrualDate, LongAdder accounts, LongAdder interest) {
+
+        String checkpointName = "interest-" + accrualDate + "-" + partition.afterId() + "-" + partition.upToId();
+        int pageSize = Math.max(1, properties.getPageSize());
+        long basis = BPS_SCALE * Math.max(1, properties.getDayCountBasis());
+
+        while (true) {
+            List<Accrual> credited = new ArrayList<>(pageSize);
+
+            Boolean progressed = transactionTemplate.execute(status -> {
+
+                ProjectionCheckpoint checkpoint = checkpointRepository.findById(checkpointName)
+                        .orElseGet(() -> new ProjectionCheckpoint(checkpointName));
+                long afterId = Math.max(partition.afterId(), checkpoint.getPosition());
+
+                List<Long> lastId = new ArrayList<>(1);
+                jdbcTemplate.query(selectPage, rs -> {
+                    long accountId = rs.getLong(1);
+                    int rate = rates.getOrDefault(AccountType.valueOf(rs.getString(2)), 0);
+                    long amount = dailyInterest(rs.getLong(3), rate, basis);
+                    if (amount > 0) {
+                        credited.add(new Accrual(accountId, amount));
+                    }
+                    lastId.clear();
+                    lastId.add(accountId);
+                }, afterId, partition.upToId(), Date.valueOf(accrualDate), pageSize);
+
+                if (lastId.isEmpty()) {
+                    return false;
+                }
+
+                LocalDateTime accruedAt = LocalDateTime.now();
+                Timestamp now = Timestamp.valueOf(accruedAt);
+                String description = "Interest for " + accrualDate;
+
+                jdbcTemplate.batchUpdate(CREDIT, credited, credited.size(), (ps, accrual) -> {
+                    ps.setLong(1, accrual.interest());
+                    ps.setDate(2, Date.valueOf(accrualDate));
+                    ps.setLong(3, accrual.accountId());
+                });
+                jdbcTemplate.batchUpdate(INSERT_TRANSACTION, credited, credited.size(), (ps, accrual) -> {
+                    ps.setLong(1, idAllocator.nextId("transaction_seq"));
+                    ps.setString(2, TransactionType.INTEREST.name());
+                    ps.setLong(3, accrual.interest());
+                    ps.setString(4, description);
+                    ps.setTimestamp(5, now);
+                    ps.setLong(6, accrual.accountId());
+                });
+
+                SummaryDelta summary = new SummaryDelta();
+                for (Accrual accrual : credited) {
+                    summary.add(TransactionType.INTEREST, null, accrual.accountId(), accrual.interest(), accruedAt);
+                }
+                summaryWriter.apply(summary);
+
+                checkpoint.setPosition(lastId.get(0));
+                checkpointRepository.save(checkpoint);
+
+                return true;
+            });
+
+            if (!Boolean.TRUE.equals(progressed)) {
+                return;
+            }
+
+            List<Long> ids = new ArrayList<>(credited.size());
+            for (Accrual accrual : credited) {
+                ids.add(accrual.accountId());
+                interest.add(accrual.interest());
+            }
+            accounts.add(credited.size());
+            accountCache.invalidateAll(ids);
+            // The balances were updated over JDBC, behind Hibernate's second-level cache
+            for (Long id : ids) {
+                entityManagerFactory.getCache().evict(Account.class, id);
+            }
+        }
+    }
+
+    // Floor of balance * bps / basis, split so the multiplication cannot overflow
+    static long dailyInterest(long balanceMinorUnits, int annualRateBps, long basis) {
+
+        if (balanceMinorUnits <= 0 || annualRateBps <= 0) {
+            return 0;
+        }
+
+        return Math.addExact(Math.multiplyExact(balanceMinorUnits / basis, annualRateBps),
+                (balanceMinorUnits % basis) * annualRateBps / basis);
+    }
+
+    private void waitFor(List<Future<?>> futures) {
+
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = new RuntimeException("Interest accrual failed, rerun to resume: "
+                            + e.getCause().getMessage(), e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interest accrual interrupted", e);
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.java.bankapp.service.impl;
+
+import com.java.bankapp.config.ReconciliationProperties;
+import com.java.bankapp.dto.ReconciliationRunDTO;
+import com.java.bankapp.entity.ProjectionCheckpoint;
+import com.java.bankapp.ledger.LedgerEngine;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.ProjectionCheckpointRepository;
+import com.java.bankapp.service.ReconciliationService;
+import com.java.bankapp.sharding.ShardedAccountStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Checks every account balance against the money movements recorded for it. The account ids
+ * are bisected by fork/join into leaves; each leaf reads its balances and replays its debits
+ * and credits through the history indexes into a primitive array, all in one repeatable-read
+ * snapshot, and writes every account whose balance differs from the replayed net to
+ * {@code <runId>.mismatches.csv}. No entity is hydrated. Every run records the highest
+ * transaction id it saw as the high-water mark; an incremental run replays only the accounts
+ * touched by transactions after the mark, less an overlap for ids that committed out of order.
+ */
+@Service
+public class ReconciliationServiceImpl implements ReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationServiceImpl.class);
+
+    static final String HIGH_WATER_MARK = "reconciliation-high-water-mark";
+
+    private static final String ACCOUNTS = """
+            select a.id,
+                   a.balance + case when a.shard_count > 0
+                       then (select coalesce(sum(s.balance), 0) from account_shard s where s.account_id = a.id)
+                       else 0 end
+            from account a
+            where %s
+            order by a.id
+            """;
+
+    // Each side is read through the history index that leads with its account column
+    private static final String DEBITS = "select from_account_id, amount from transaction where %s";
+
+    private static final String CREDITS = "select to_account_id, amount from transaction where %s";
+
+    private static final String TOUCHED = "select from_account_id, to_account_id from transaction where id > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final ProjectionCheckpointRepository checkpointRepository;
+    private final ReconciliationProperties properties;
+    private final boolean ledgerMode;
+    private final boolean shardedMode;
+
+    private final ReentrantLock running = new ReentrantLock();
+
+    public ReconciliationServiceImpl(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     ProjectionCheckpointRepository checkpointRepository,
+                                     ReconciliationProperties properties,
+                                     ObjectProvider<LedgerEngine> ledgerEngine,
+                                     ObjectProvider<ShardedAccountStore> shardedStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.checkpointRepository = checkpointRepository;
+        this.properties = properties;
+        this.ledgerMode = ledgerEngine.getIfAvailable() != null;
+        this.shardedMode = shardedStore.getIfAvailable() != null;
+    }
+
+    // Totals and the report shared by every leaf of one run
+    private static final class Run {
+
+        private final BufferedWriter report;
+        private final LongAdder leaves = new LongAdder();
+        private final LongAdder accounts = new LongAdder();
+        private final LongAdder transactions = new LongAdder();
+        private final LongAdder mismatches = new LongAdder();
+
+        private Run(BufferedWriter report) {
+            this.report = report;
+        }
+
+        private void mismatch(long accountId, long balance, long replayed) {
+            mismatches.increment();
+            synchronized (report) {
+                try {
+                    report.write(accountId + "," + Money.ofMinor(balance) + "," + Money.ofMinor(replayed)
+                            + "," + Money.ofMinor(balance - replayed));
+                    report.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not write the reconciliation report", e);
+                }
+            }
+        }
+    }
+
+    // Either an account id range (afterId, upToId] or a slice [from, to) of the sorted touched ids
+    private final class Replay extends RecursiveAction {
+
+        private final Run run;
+        private final long afterId;
+        private final long upToId;
+        private final long[] touched;
+        private final int from;
+        private final int to;
+
+        private Replay(Run run, long afterId, long upToId) {
+            this(run, afterId, upToId, null, 0, 0);
+        }
+
+        private Replay(Run run, long[] touched, int from, int to) {
+            this(run, 0, 0, touched, from, to);
+        }
+
+        private Replay(Run run, long afterId, long upToId, long[] touched, int from, int to) {
+            this.run = run;
+            this.afterId = afterId;
+            this.upToId = upToId;
+            this.touched = touched;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (touched == null && upToId - afterId > Math.max(1, properties.getLeafWidth())) {
+                long middle = afterId + (upToId - afterId) / 2;
+                invokeAll(new Replay(run, afterId, middle), new Replay(run, middle, upToId));
+            } else if (touched != null && to - from > Math.max(1, properties.getLeafAccounts())) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Replay(run, touched, from, middle), new Replay(run, touched, middle, to));
+            } else {
+                replayLeaf(this);
+            }
+        }
+
+        private String predicate(String column) {
+            return touched == null
+                    ? column + " > ? and " + column + " <= ?"
+                    : column + " in (" + "?, ".repeat(to - from - 1) + "?)";
+        }
+
+        private long[] parameters() {
+            return touched == null ? new long[]{afterId, upToId} : Arrays.copyOfRange(touched, from, to);
+        }
+    }
+
+    // A growable long[] so that ids and balances are never boxed
+    private static final class LongBuffer {
+
+        private long[] values = new long[64];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private long[] sortedDistinct() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[distinct - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, distinct);
+        }
+    }
+
+    @Override
+    public ReconciliationRunDTO reconcile(boolean incremental) {
+
+        if (ledgerMode) {
+            throw new RuntimeException("Reconciliation is not available while the in-memory ledger is enabled");
+        }
+
+        if (shardedMode) {
+            throw new RuntimeException("Reconciliation is not available while balances are kept in shard databases");
+        }
+
+        if (!running.tryLock()) {
+            throw new RuntimeException("Reconciliation is already running");
+        }
+
+        try {
+            long start = System.nanoTime();
+
+            Long maxTransactionId = jdbcTemplate.queryForObject("select max(id) from transaction", Long.class);
+            long highWaterMark = maxTransactionId != null ? maxTransactionId : 0;
+
+            // Without a previous mark there is nothing to be incremental from
+            Long previousMark = checkpointRepository.findById(HIGH_WATER_MARK)
+                    .map(ProjectionCheckpoint::getPosition)
+                    .orElse(null);
+            boolean partial = incremental && previousMark != null;
+            long fromTransactionId = partial ? Math.max(0, previousMark - properties.getIncrementalOverlap()) : 0;
+
+            String runId = UUID.randomUUID().toString();
+            Path reportFile;
+            Run run;
+
+            try {
+                reportFile = Files.createDirectories(Path.of(properties.getDirectory()))
+                        .resolve(runId + ".mismatches.csv");
+
+                try (BufferedWriter report = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+                    report.write("account_id,balance,replayed,difference");
+                    report.newLine();
+
+                    run = new Run(report);
+                    Replay root = partial ? touchedSince(run, fromTransactionId) : allAccounts(run);
+                    if (root != null) {
+                        int parallelism = properties.getParallelism() > 0
+                                ? properties.getParallelism()
+                                : Runtime.getRuntime().availableProcessors();
+                        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+                            pool.invoke(root);
+                        } catch (RuntimeException e) {
+                            throw new RuntimeException("Reconciliation failed: " + e.getMessage(), e);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write the reconciliation report", e);
+            }
+
+            ProjectionCheckpoint checkpoint = new ProjectionCheckpoint(HIGH_WATER_MARK);
+            checkpoint.setPosition(highWaterMark);
+            checkpointRepository.save(checkpoint);
+
+            ReconciliationRunDTO result = new ReconciliationRunDTO();
+            result.setRunId(runId);
+            result.setIncremental(partial);
+            result.setFromTransactionId(fromTransactionId);
+            result.setHighWaterMark(highWaterMark);
+            result.setLeaves(run.leaves.sum());
+            result.setAccountsChecked(run.accounts.sum());
+            result.setTransactionsReplayed(run.transactions.sum());
+            result.setMismatches(run.mismatches.sum());
+            result.setReportFile(reportFile.toString());
+            result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+
+            if (result.getMismatches() > 0) {
+                log.warn("Reconciliation {} found {} mismatched accounts out of {}, see {}",
+                        runId, result.getMismatches(), result.getAccountsChecked(), reportFile);
+            }
+            return result;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private Replay allAccounts(Run run) {
+
+        Long minId = jdbcTemplate.queryForObject("select min(id) from account", Long.class);
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from account", Long.class);
+
+        return minId != null ? new Replay(run, minId - 1, maxId) : null;
+    }
+
+    private Replay touchedSince(Run run, long fromTransactionId) {
+
+        LongBuffer ids = new LongBuffer();
+        jdbcTemplate.query(TOUCHED, rs -> {
+            long fromAccountId = rs.getLong(1);
+            if (!rs.wasNull()) {
+                ids.add(fromAccountId);
+            }
+            long toAccountId = rs.getLong(2);
+            if (!rs.wasNull()) {
+                ids.add(toAccountId);
+            }
+        }, fromTransactionId);
+
+        long[] touched = ids.sortedDistinct();
+        return touched.length > 0 ? new Replay(run, touched, 0, touched.length) : null;
+    }
+
+    private void replayLeaf(Replay leaf) {
+
+        long[] parameters = leaf.parameters();
+
+        snapshotTemplate.executeWithoutResult(status -> jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+
+            // H2 materialises every result before returning the first row unless told to run lazily
+            boolean h2 = "H2".equals(connection.getMetaData().getDatabaseProductName());
+            if (h2) {
+                setLazyExecution(connection, true);
+            }
+
+            try {
+                LongBuffer ids = new LongBuffer();
+                LongBuffer balances = new LongBuffer();
+                try (PreparedStatement query = prepare(connection, ACCOUNTS.formatted(leaf.predicate("a.id")), parameters);
+                     ResultSet rows = query.executeQuery()) {
+                    while (rows.next()) {
+                        ids.add(rows.getLong(1));
+                        balances.add(rows.getLong(2));
+                    }
+                }
+
+                long[] net = new long[ids.size];
+                long replayed = accumulate(connection, DEBITS.formatted(leaf.predicate("from_account_id")),
+                        parameters, ids, net, -1)
+                        + accumulate(connection, CREDITS.formatted(leaf.predicate("to_account_id")),
+                        parameters, ids, net, 1);
+
+                for (int i = 0; i < ids.size; i++) {
+                    if (net[i] != balances.values[i]) {
+                        leaf.run.mismatch(ids.values[i], balances.values[i], net[i]);
+                    }
+                }
+
+                leaf.run.leaves.increment();
+                leaf.run.accounts.add(ids.size);
+                leaf.run.transactions.add(replayed);
+            } finally {
+                if (h2) {
+                    setLazyExecution(connection, false);
+                }
+            }
+            return null;
+        }));
+    }
+
+    // Adds sign * amount to the net of each row's account; ids is sorted, so the slot is a binary search
+    private long accumulate(Connection connection, String sql, long[] parameters, LongBuffer ids, long[] net, int sign)
+            throws SQLException {
+
+        long rowCount = 0;
+        try (PreparedStatement query = prepare(connection, sql, parameters);
+             ResultSet rows = query.executeQuery()) {
+            while (rows.next()) {
+                int slot = Arrays.binarySearch(ids.values, 0, ids.size, rows.getLong(1));
+                if (slot >= 0) {
+                    net[slot] += sign * rows.getLong(2);
+                }
+                rowCount++;
+            }
+        }
+        return rowCount;
+    }
+
+    private PreparedStatement prepare(Connection connection, String sql, long[] parameters) throws SQLException {
+
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(properties.getFetchSize());
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setLong(i + 1, parameters[i]);
+        }
+        return statement;
+    }
+
+    private static void setLazyExecution(Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + lazy);
+        }
+    }
+}
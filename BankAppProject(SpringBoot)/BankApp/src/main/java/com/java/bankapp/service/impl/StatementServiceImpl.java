@@ -0,0 +1,187 @@
+package com.java.bankapp.service.impl;
+
+import com.java.bankapp.config.StatementProperties;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.service.StatementService;
+import com.java.bankapp.statement.StatementWriter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Streams an account's statement without materialising it. Debits and credits are read
+ * through two forward-only cursors, each walking its history index in (date, id) order, and
+ * merged row by row into a {@link StatementWriter}. The database never sorts, and memory
+ * stays at two current rows plus the write buffer however long the range is. The read-only
+ * transaction, and its connection, is held until the last byte is written.
+ */
+@Service
+public class StatementServiceImpl implements StatementService {
+
+    // Ordered by the full history index, leading account column included, so the database can
+    // walk the index instead of sorting the range first
+    private static final String DEBITS = """
+            select id, transaction_date, transaction_type, amount, to_account_id, description
+            from transaction
+            where from_account_id = ? and transaction_date >= ? and transaction_date < ?
+            order by from_account_id, transaction_date, id
+            """;
+
+    private static final String CREDITS = """
+            select id, transaction_date, transaction_type, amount, from_account_id, description
+            from transaction
+            where to_account_id = ? and transaction_date >= ? and transaction_date < ?
+            order by to_account_id, transaction_date, id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountRepository accountRepository;
+    private final StatementProperties properties;
+
+    public StatementServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                AccountRepository accountRepository, StatementProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.accountRepository = accountRepository;
+        this.properties = properties;
+    }
+
+    // The current row of one side of the merge; overwritten on every advance
+    private static final class Cursor {
+
+        private final ResultSet rows;
+        private final boolean credit;
+        private boolean present;
+        private long id;
+        private LocalDateTime date;
+        private String type;
+        private long amount;
+        private Long counterparty;
+        private String description;
+
+        private Cursor(ResultSet rows, boolean credit) throws SQLException {
+            this.rows = rows;
+            this.credit = credit;
+            advance();
+        }
+
+        private void advance() throws SQLException {
+            present = rows.next();
+            if (present) {
+                id = rows.getLong(1);
+                date = rows.getObject(2, LocalDateTime.class);
+                type = rows.getString(3);
+                amount = rows.getLong(4);
+                long other = rows.getLong(5);
+                counterparty = rows.wasNull() ? null : other;
+                description = rows.getString(6);
+            }
+        }
+
+        private boolean before(Cursor other) {
+            int byDate = date.compareTo(other.date);
+            return byDate < 0 || (byDate == 0 && id <= other.id);
+        }
+    }
+
+    @Override
+    public void validate(Long accountId, LocalDate from, LocalDate to, String format) {
+
+        isCsv(format);
+
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new RuntimeException("Invalid date range");
+        }
+
+        if (!accountRepository.existsById(accountId)) {
+            throw new RuntimeException("Account not found");
+        }
+    }
+
+    @Override
+    public void writeStatement(Long accountId, LocalDate from, LocalDate to, String format, OutputStream out) {
+
+        StatementWriter writer = new StatementWriter(out, isCsv(format), properties.getBufferSize());
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+
+            // H2 materialises every result before returning the first row unless told to run lazily
+            boolean h2 = "H2".equals(connection.getMetaData().getDatabaseProductName());
+            if (h2) {
+                setLazyExecution(connection, true);
+            }
+
+            try (PreparedStatement debitQuery = open(connection, DEBITS, accountId, start, end);
+                 PreparedStatement creditQuery = open(connection, CREDITS, accountId, start, end);
+                 ResultSet debitRows = debitQuery.executeQuery();
+                 ResultSet creditRows = creditQuery.executeQuery()) {
+
+                Cursor debits = new Cursor(debitRows, false);
+                Cursor credits = new Cursor(creditRows, true);
+
+                writer.writeHeader();
+                while (debits.present || credits.present) {
+                    Cursor next = !credits.present || (debits.present && debits.before(credits)) ? debits : credits;
+                    writer.writeLine(next.id, next.date, next.type, next.credit, next.amount,
+                            next.counterparty, next.description);
+                    next.advance();
+                }
+                writer.flush();
+
+            } catch (IOException e) {
+                throw new UncheckedIOException("Statement for account " + accountId + " was cut off", e);
+            } finally {
+                if (h2) {
+                    setLazyExecution(connection, false);
+                }
+            }
+            return null;
+        }));
+    }
+
+    private PreparedStatement open(Connection connection, String sql, Long accountId, Timestamp start, Timestamp end)
+            throws SQLException {
+
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(properties.getFetchSize());
+        statement.setLong(1, accountId);
+        statement.setTimestamp(2, start);
+        statement.setTimestamp(3, end);
+        return statement;
+    }
+
+    private static void setLazyExecution(Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + lazy);
+        }
+    }
+
+    private static boolean isCsv(String format) {
+        if ("csv".equalsIgnoreCase(format)) {
+            return true;
+        }
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return false;
+        }
+        throw new RuntimeException("Unsupported statement format: " + format);
+    }
+}
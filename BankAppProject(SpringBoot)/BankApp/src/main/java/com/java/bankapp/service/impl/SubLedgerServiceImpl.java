@@ -0,0 +1,127 @@
+package com.java.bankapp.service.impl;
+
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.entity.AccountShard;
+import com.java.bankapp.ledger.LedgerEngine;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.repository.AccountShardRepository;
+import com.java.bankapp.service.SubLedgerService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Applies balance changes to an account, spreading hot accounts over several
+ * {@link AccountShard} rows. Credits to a sharded account touch one random shard with a
+ * single UPDATE, so concurrent deposits rarely wait on the same row. Debits borrow from
+ * the shards in index order until the amount is covered.
+ */
+@Service
+public class SubLedgerServiceImpl implements SubLedgerService {
+
+    private final AccountRepository accountRepository;
+    private final AccountShardRepository accountShardRepository;
+    private final boolean ledgerMode;
+
+    public SubLedgerServiceImpl(AccountRepository accountRepository, AccountShardRepository accountShardRepository,
+                                ObjectProvider<LedgerEngine> ledgerEngine) {
+        this.accountRepository = accountRepository;
+        this.accountShardRepository = accountShardRepository;
+        this.ledgerMode = ledgerEngine.getIfAvailable() != null;
+    }
+
+    @Override
+    @Transactional
+    public void enableSharding(Long accountId, int shardCount) {
+
+        if (ledgerMode) {
+            throw new RuntimeException("Account sharding is not available while the in-memory ledger is enabled");
+        }
+
+        if (shardCount < 2) {
+            throw new RuntimeException("Shard count must be at least 2");
+        }
+
+        Account account = accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+
+        if (account.getShardCount() > 0) {
+            throw new RuntimeException("Account is already sharded");
+        }
+
+        List<AccountShard> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            AccountShard shard = new AccountShard();
+            shard.setAccountId(accountId);
+            shard.setShardIndex(i);
+            shard.setBalance(i == 0 ? account.getBalance() : Money.ZERO);
+            shards.add(shard);
+        }
+        accountShardRepository.saveAll(shards);
+
+        account.setBalance(Money.ZERO);
+        account.setShardCount(shardCount);
+    }
+
+    @Override
+    public Money balanceOf(Account account) {
+
+        if (account.getShardCount() == 0) {
+            return account.getBalance();
+        }
+
+        return account.getBalance().plus(Money.ofMinor(accountShardRepository.totalBalance(account.getId())));
+    }
+
+    @Override
+    public void credit(Account account, Money amount) {
+
+        if (account.getShardCount() == 0) {
+            account.setBalance(account.getBalance().plus(amount));
+            return;
+        }
+
+        int shardIndex = ThreadLocalRandom.current().nextInt(account.getShardCount());
+        accountShardRepository.credit(account.getId(), shardIndex, amount.minorUnits());
+    }
+
+    @Override
+    public void debit(Account account, Money amount) {
+
+        if (account.getShardCount() == 0) {
+            if (account.getBalance().isLessThan(amount)) {
+                throw new RuntimeException("Insufficient balance");
+            }
+            account.setBalance(account.getBalance().minus(amount));
+            return;
+        }
+
+        Money remaining = amount;
+
+        if (account.getBalance().isPositive()) {
+            Money taken = account.getBalance().min(remaining);
+            account.setBalance(account.getBalance().minus(taken));
+            remaining = remaining.minus(taken);
+        }
+
+        // Shards are always locked in index order, so concurrent debits cannot deadlock
+        for (int i = 0; i < account.getShardCount() && remaining.isPositive(); i++) {
+
+            AccountShard shard = accountShardRepository.findForUpdate(account.getId(), i)
+                    .orElseThrow(() -> new RuntimeException("Account shard missing"));
+
+            Money taken = shard.getBalance().min(remaining);
+            shard.setBalance(shard.getBalance().minus(taken));
+            remaining = remaining.minus(taken);
+        }
+
+        if (remaining.isPositive()) {
+            throw new RuntimeException("Insufficient balance");
+        }
+    }
+}
@@ -1,39 +1,250 @@
 package com.java.bankapp.service.impl;
 
+import com.java.bankapp.dto.TransactionDTO;
+import com.java.bankapp.dto.TransactionPageDTO;
 import com.java.bankapp.entity.Transaction;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.groupcommit.GroupCommitRecorder;
+import com.java.bankapp.journal.TransactionJournal;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
 import com.java.bankapp.repository.TransactionRepository;
 import com.java.bankapp.service.TransactionService;
+import com.java.bankapp.summary.AccountSummaryWriter;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final Logger log = LoggerFactory.getLogger(TransactionServiceImpl.class);
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private record Cursor(LocalDateTime transactionDate, Long id) {
+    }
+
     private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionJournal journal;
+    private final GroupCommitRecorder recorder;
+    private final AccountSummaryWriter summaryWriter;
+    private final TransactionTemplate transactionTemplate;
 
-    public TransactionServiceImpl(TransactionRepository transactionRepository) {
+    public TransactionServiceImpl(TransactionRepository transactionRepository,
+                                  AccountRepository accountRepository,
+                                  ObjectProvider<TransactionJournal> journal,
+                                  ObjectProvider<GroupCommitRecorder> recorder,
+                                  AccountSummaryWriter summaryWriter,
+                                  PlatformTransactionManager transactionManager) {
         this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.summaryWriter = summaryWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journal = journal.getIfAvailable();
+        this.recorder = recorder.getIfAvailable();
     }
 
     @Override
+    @Transactional
     public Transaction recordTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+
+        if (transaction.getTransactionDate() == null) {
+            transaction.setTransactionDate(LocalDateTime.now());
+        }
+
+        Transaction saved = transactionRepository.save(transaction);
+
+        summaryWriter.applyAtCommit(saved.getTransactionType(),
+                saved.getFromAccount() != null ? saved.getFromAccount().getId() : null,
+                saved.getToAccount() != null ? saved.getToAccount().getId() : null,
+                saved.getAmount().minorUnits(), saved.getTransactionDate());
+
+        return saved;
+    }
+
+    @Override
+    public CompletableFuture<Long> recordTransactionAsync(Transaction transaction) {
+
+        if (recorder == null) {
+            // A self-call skips the @Transactional proxy, so open (or join) the transaction here
+            return CompletableFuture.completedFuture(
+                    transactionTemplate.execute(status -> recordTransaction(transaction)).getId());
+        }
+
+        return recorder.record(transaction.getTransactionType(),
+                transaction.getFromAccount() != null ? transaction.getFromAccount().getId() : null,
+                transaction.getToAccount() != null ? transaction.getToAccount().getId() : null,
+                transaction.getAmount(), transaction.getDescription(), transaction.getTransactionDate());
+    }
+
+    @Override
+    public CompletableFuture<Void> recordMovement(TransactionType type, Long fromAccountId, Long toAccountId, Money amount) {
+
+        if (journal != null) {
+            // A rolled-back or retried mutation must not leave a record behind
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                CompletableFuture<Void> appended = new CompletableFuture<>();
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        try {
+                            journal.append(type, fromAccountId, toAccountId, amount);
+                            appended.complete(null);
+                        } catch (RuntimeException e) {
+                            // The caller has committed, so fail its future rather than the caller
+                            log.error("Committed {} of {} from {} to {} was not journalled: {}",
+                                    type, amount, fromAccountId, toAccountId, e.getMessage());
+                            appended.completeExceptionally(e);
+                        }
+                    }
+
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status != STATUS_COMMITTED) {
+                            appended.completeExceptionally(new RuntimeException("Transaction rolled back, nothing recorded"));
+                        }
+                    }
+                });
+                return appended;
+            }
+            journal.append(type, fromAccountId, toAccountId, amount);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (recorder != null) {
+            // Published after commit, so the caller's transaction no longer waits for the insert
+            return recorder.recordAfterCommit(type, fromAccountId, toAccountId, amount, null, LocalDateTime.now())
+                    .thenApply(id -> null);
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(type);
+        transaction.setAmount(amount);
+        transaction.setTransactionDate(LocalDateTime.now());
+
+        if (fromAccountId != null) {
+            transaction.setFromAccount(accountRepository.getReferenceById(fromAccountId));
+        }
+        if (toAccountId != null) {
+            transaction.setToAccount(accountRepository.getReferenceById(toAccountId));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> recordTransaction(transaction));
+        return CompletableFuture.completedFuture(null);
     }
 
     @Override
-    public List<Transaction> getTransactionsByAccount(Long accountId) {
+    @Transactional(readOnly = true)
+    public TransactionPageDTO getTransactionsByAccount(Long accountId, String cursor, int size) {
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        // Fetch one extra row to find out whether an older page exists
+        Limit limit = Limit.of(pageSize + 1);
+
+        // An OR across both account columns cannot use either history index, so each direction
+        // is read from its own index and the two newest-first lists are merged
+        List<Transaction> debits;
+        List<Transaction> credits;
+        if (cursor == null || cursor.isBlank()) {
+            debits = transactionRepository.findDebitHistory(accountId, limit);
+            credits = transactionRepository.findCreditHistory(accountId, limit);
+        } else {
+            Cursor position = decodeCursor(cursor);
+            debits = transactionRepository.findDebitHistoryBefore(accountId,
+                    position.transactionDate(), position.id(), limit);
+            credits = transactionRepository.findCreditHistoryBefore(accountId,
+                    position.transactionDate(), position.id(), limit);
+        }
+        List<Transaction> transactions = merge(debits, credits, pageSize + 1);
+
+        boolean hasMore = transactions.size() > pageSize;
+        if (hasMore) {
+            transactions = transactions.subList(0, pageSize);
+        }
+
+        TransactionPageDTO page = new TransactionPageDTO();
+        page.setTransactions(transactions.stream().map(this::toDTO).toList());
+
+        if (hasMore) {
+            Transaction last = transactions.get(transactions.size() - 1);
+            page.setNextCursor(encodeCursor(last));
+        }
+
+        return page;
+    }
 
-        List<Transaction> sentTransactions =
-                transactionRepository.findByFromAccountId(accountId);
+    // Both lists are newest first; a transfer to the account itself is in both and kept once
+    private static List<Transaction> merge(List<Transaction> debits, List<Transaction> credits, int limit) {
 
-        List<Transaction> receivedTransactions =
-                transactionRepository.findByToAccountId(accountId);
+        List<Transaction> merged = new ArrayList<>(limit);
+        int d = 0;
+        int c = 0;
+        while (merged.size() < limit && (d < debits.size() || c < credits.size())) {
+            Transaction next = c == credits.size() || (d < debits.size() && !isOlder(debits.get(d), credits.get(c)))
+                    ? debits.get(d++)
+                    : credits.get(c++);
+            if (merged.isEmpty() || !merged.getLast().getId().equals(next.getId())) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+
+    private static boolean isOlder(Transaction transaction, Transaction other) {
+        int byDate = transaction.getTransactionDate().compareTo(other.getTransactionDate());
+        return byDate < 0 || (byDate == 0 && transaction.getId() < other.getId());
+    }
+
+    private TransactionDTO toDTO(Transaction transaction) {
+
+        TransactionDTO dto = new TransactionDTO();
 
-        sentTransactions.addAll(receivedTransactions);
+        dto.setId(transaction.getId());
+        dto.setAmount(transaction.getAmount());
+        dto.setTransactionType(transaction.getTransactionType().name());
+        dto.setTransactionDate(transaction.getTransactionDate());
+
+        // Reading the id of a lazy association does not initialize it
+        if (transaction.getFromAccount() != null) {
+            dto.setFromAccountId(transaction.getFromAccount().getId());
+        }
+        if (transaction.getToAccount() != null) {
+            dto.setToAccountId(transaction.getToAccount().getId());
+        }
+
+        return dto;
+    }
+
+    private String encodeCursor(Transaction transaction) {
+        String position = transaction.getTransactionDate() + "|" + transaction.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
 
-        return sentTransactions;
+    private Cursor decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new Cursor(LocalDateTime.parse(position[0]), Long.parseLong(position[1]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
     }
 
-}
\ No newline at end of file
+}
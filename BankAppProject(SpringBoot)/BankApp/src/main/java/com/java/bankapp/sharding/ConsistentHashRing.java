@@ -0,0 +1,60 @@
+package com.java.bankapp.sharding;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Maps account ids to shards on a hash ring. Every shard owns {@code virtualNodes} points,
+ * placed by hashing the shard index alone, and an id belongs to the first point at or after
+ * its own hash. Adding a shard only adds points, so about 1/N of the ids move, all of them
+ * onto the new shard.
+ */
+public final class ConsistentHashRing {
+
+    // Keeps the points of shard 0 from hashing exactly like the small account ids
+    private static final long POINT_SEED = 0x9E3779B97F4A7C15L;
+
+    private final long[] points;
+    private final int[] owners;
+
+    public ConsistentHashRing(int shards, int virtualNodes) {
+
+        if (shards < 1 || virtualNodes < 1) {
+            throw new IllegalArgumentException("A ring needs at least one shard and one virtual node");
+        }
+
+        long[] unsorted = new long[shards * virtualNodes];
+        for (int shard = 0; shard < shards; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                unsorted[shard * virtualNodes + node] = mix((((long) shard << 32) | node) ^ POINT_SEED);
+            }
+        }
+
+        Integer[] order = IntStream.range(0, unsorted.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingLong(i -> unsorted[i]));
+
+        points = new long[order.length];
+        owners = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            points[i] = unsorted[order[i]];
+            owners[i] = order[i] / virtualNodes;
+        }
+    }
+
+    public int shardFor(long key) {
+
+        int slot = Arrays.binarySearch(points, mix(key));
+        if (slot < 0) {
+            slot = -slot - 1;
+        }
+        return owners[slot == points.length ? 0 : slot];
+    }
+
+    // The MurmurHash3 finaliser: sequential ids land far apart on the ring
+    static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,343 @@
+package com.java.bankapp.sharding;
+
+import com.java.bankapp.config.ShardingProperties;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.money.Money;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps account balances in N shard databases, each account on the shard its id hashes to
+ * on a {@link ConsistentHashRing}. Deposits, withdrawals and transfers between two accounts
+ * on the same shard are one local transaction there, and every balance change is recorded as
+ * a signed row in that shard's {@code account_movement} table.
+ *
+ * <p>A transfer across shards is a saga with its state in the sender's {@code transfer_saga}
+ * table: the sender is debited and the saga recorded as DEBITED in one local transaction,
+ * then the receiver's shard decides the outcome by inserting the saga into
+ * {@code saga_decision} in the same transaction as the credit, or as ABORTED when the
+ * receiver does not exist. The decision's primary key lets exactly one outcome win however
+ * many times the step is retried. The saga then ends COMPLETED, or COMPENSATED with the
+ * sender refunded. {@link #recoverSagas()} finishes sagas left DEBITED by a failure between
+ * the steps.
+ */
+@Component
+@ConditionalOnProperty(name = "bankapp.sharding.enabled", havingValue = "true")
+public class ShardedAccountStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedAccountStore.class);
+
+    private static final String DEBITED = "DEBITED";
+    private static final String COMPLETED = "COMPLETED";
+    private static final String COMPENSATED = "COMPENSATED";
+    private static final String CREDITED = "CREDITED";
+    private static final String ABORTED = "ABORTED";
+
+    private static final List<String> SCHEMA = List.of(
+            "create table if not exists account_balance (id bigint primary key, balance bigint not null)",
+            """
+            create table if not exists account_movement (
+                id bigint generated by default as identity primary key,
+                account_id bigint not null,
+                transaction_type varchar(16) not null,
+                amount bigint not null,
+                counterparty_id bigint,
+                saga_id varchar(36),
+                description varchar(255),
+                transaction_date timestamp not null)
+            """,
+            "create index if not exists idx_account_movement_account on account_movement (account_id, transaction_date, id)",
+            """
+            create table if not exists transfer_saga (
+                id varchar(36) primary key,
+                from_account_id bigint not null,
+                to_account_id bigint not null,
+                amount bigint not null,
+                state varchar(16) not null,
+                created_at timestamp not null,
+                updated_at timestamp not null)
+            """,
+            "create index if not exists idx_transfer_saga_state on transfer_saga (state, updated_at)",
+            """
+            create table if not exists saga_decision (
+                saga_id varchar(36) primary key,
+                outcome varchar(16) not null,
+                decided_at timestamp not null)
+            """);
+
+    private static final String CREDIT = "update account_balance set balance = balance + ? where id = ?";
+
+    private static final String DEBIT = "update account_balance set balance = balance - ? where id = ? and balance >= ?";
+
+    private static final String INSERT_MOVEMENT = """
+            insert into account_movement (account_id, transaction_type, amount, counterparty_id, saga_id,
+                                          description, transaction_date)
+            values (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String SELECT_STALE = """
+            select id, from_account_id, to_account_id, amount from transfer_saga
+            where state = 'DEBITED' and updated_at < ?
+            order by updated_at
+            limit 1000
+            """;
+
+    private record Shard(int index, HikariDataSource dataSource, JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate) {
+    }
+
+    record Saga(String id, long fromAccountId, long toAccountId, long amount) {
+    }
+
+    private final List<Shard> shards;
+    private final ConsistentHashRing ring;
+    private final ShardingProperties properties;
+
+    public ShardedAccountStore(ShardingProperties properties) {
+        this.properties = properties;
+        this.ring = new ConsistentHashRing(properties.getDatabases(), properties.getVirtualNodes());
+
+        List<Shard> opened = new ArrayList<>(properties.getDatabases());
+        for (int i = 0; i < properties.getDatabases(); i++) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(properties.getUrlTemplate().formatted(i))
+                    .username(properties.getUsername())
+                    .password(properties.getPassword())
+                    .build();
+            dataSource.setMaximumPoolSize(properties.getPoolSize());
+            dataSource.setPoolName("shard-" + i);
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            SCHEMA.forEach(jdbcTemplate::execute);
+
+            opened.add(new Shard(i, dataSource, jdbcTemplate,
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource))));
+        }
+        this.shards = List.copyOf(opened);
+    }
+
+    public int shardOf(long accountId) {
+        return ring.shardFor(accountId);
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public void createAccount(long accountId) {
+        shardFor(accountId).jdbcTemplate().update("insert into account_balance (id, balance) values (?, 0)", accountId);
+    }
+
+    public Money getBalance(long accountId) {
+
+        List<Long> balance = shardFor(accountId).jdbcTemplate()
+                .queryForList("select balance from account_balance where id = ?", Long.class, accountId);
+        if (balance.isEmpty()) {
+            throw new RuntimeException("Account not found");
+        }
+        return Money.ofMinor(balance.get(0));
+    }
+
+    public void deposit(long accountId, Money amount) {
+
+        Shard shard = shardFor(accountId);
+        shard.transactionTemplate().executeWithoutResult(status -> {
+            credit(shard, accountId, amount.minorUnits(), "Account not found");
+            record(shard, accountId, TransactionType.DEPOSIT, amount.minorUnits(), null, null, null);
+        });
+    }
+
+    public void withdraw(long accountId, Money amount) {
+
+        Shard shard = shardFor(accountId);
+        shard.transactionTemplate().executeWithoutResult(status -> {
+            debit(shard, accountId, amount.minorUnits(), "Account not found");
+            record(shard, accountId, TransactionType.WITHDRAW, -amount.minorUnits(), null, null, null);
+        });
+    }
+
+    public void transfer(long fromAccountId, long toAccountId, Money amount) {
+
+        Shard source = shardFor(fromAccountId);
+        Shard target = shardFor(toAccountId);
+        long minorUnits = amount.minorUnits();
+
+        if (source == target) {
+            source.transactionTemplate().executeWithoutResult(status -> {
+                // Row locks are always taken lowest id first
+                if (fromAccountId <= toAccountId) {
+                    debit(source, fromAccountId, minorUnits, "Sender account not found");
+                    credit(source, toAccountId, minorUnits, "Receiver account not found");
+                } else {
+                    credit(source, toAccountId, minorUnits, "Receiver account not found");
+                    debit(source, fromAccountId, minorUnits, "Sender account not found");
+                }
+                record(source, fromAccountId, TransactionType.TRANSFER, -minorUnits, toAccountId, null, null);
+                record(source, toAccountId, TransactionType.TRANSFER, minorUnits, fromAccountId, null, null);
+            });
+            return;
+        }
+
+        Saga saga = begin(fromAccountId, toAccountId, minorUnits);
+
+        String outcome;
+        try {
+            outcome = resolve(saga);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Transfer " + saga.id() + " is debited and will be completed by recovery: "
+                    + e.getMessage(), e);
+        }
+
+        if (ABORTED.equals(outcome)) {
+            throw new RuntimeException("Receiver account not found");
+        }
+    }
+
+    /**
+     * Finishes every cross-shard transfer that has stayed DEBITED longer than
+     * {@code bankapp.sharding.saga-stale-after}. Resolving is idempotent, so a saga whose
+     * original caller is still running is settled the same way by whichever side gets there first.
+     */
+    @Scheduled(fixedDelayString = "${bankapp.sharding.recovery-interval-ms:1000}")
+    public int recoverSagas() {
+
+        Timestamp staleBefore = Timestamp.valueOf(LocalDateTime.now().minus(properties.getSagaStaleAfter()));
+        int resolved = 0;
+
+        for (Shard shard : shards) {
+            List<Saga> stale = shard.jdbcTemplate().query(SELECT_STALE, (rs, row) -> new Saga(rs.getString(1),
+                    rs.getLong(2), rs.getLong(3), rs.getLong(4)), staleBefore);
+
+            for (Saga saga : stale) {
+                try {
+                    resolve(saga);
+                    resolved++;
+                } catch (RuntimeException e) {
+                    log.warn("Transfer saga {} on shard {} is still unresolved: {}", saga.id(), shard.index(),
+                            e.getMessage());
+                }
+            }
+        }
+
+        if (resolved > 0) {
+            log.info("Recovered {} cross-shard transfer sagas", resolved);
+        }
+        return resolved;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shards.forEach(shard -> shard.dataSource().close());
+    }
+
+    // Step one: debit the sender and record the saga in one local transaction on its shard
+    Saga begin(long fromAccountId, long toAccountId, long minorUnits) {
+
+        Saga saga = new Saga(UUID.randomUUID().toString(), fromAccountId, toAccountId, minorUnits);
+        Shard source = shardFor(fromAccountId);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        source.transactionTemplate().executeWithoutResult(status -> {
+            debit(source, fromAccountId, minorUnits, "Sender account not found");
+            source.jdbcTemplate().update("""
+                    insert into transfer_saga (id, from_account_id, to_account_id, amount, state, created_at, updated_at)
+                    values (?, ?, ?, ?, ?, ?, ?)
+                    """, saga.id(), fromAccountId, toAccountId, minorUnits, DEBITED, now, now);
+            record(source, fromAccountId, TransactionType.TRANSFER, -minorUnits, toAccountId, saga.id(), null);
+        });
+        return saga;
+    }
+
+    // Steps two and three: settle the outcome on the receiver's shard, then close the saga on the sender's
+    private String resolve(Saga saga) {
+
+        String outcome = decide(saga);
+        Shard source = shardFor(saga.fromAccountId());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        source.transactionTemplate().executeWithoutResult(status -> {
+            String state = CREDITED.equals(outcome) ? COMPLETED : COMPENSATED;
+            int closed = source.jdbcTemplate().update(
+                    "update transfer_saga set state = ?, updated_at = ? where id = ? and state = ?",
+                    state, now, saga.id(), DEBITED);
+
+            // Refunded only by whoever closes the saga, so a second resolve cannot refund twice
+            if (closed == 1 && COMPENSATED.equals(state)) {
+                credit(source, saga.fromAccountId(), saga.amount(), "Sender account not found");
+                record(source, saga.fromAccountId(), TransactionType.TRANSFER, saga.amount(), saga.toAccountId(),
+                        saga.id(), "Reversal of a transfer to a missing account");
+            }
+        });
+        return outcome;
+    }
+
+    private String decide(Saga saga) {
+
+        Shard target = shardFor(saga.toAccountId());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        try {
+            return target.transactionTemplate().execute(status -> {
+                target.jdbcTemplate().update("insert into saga_decision (saga_id, outcome, decided_at) values (?, ?, ?)",
+                        saga.id(), CREDITED, now);
+
+                if (target.jdbcTemplate().update(CREDIT, saga.amount(), saga.toAccountId()) == 0) {
+                    target.jdbcTemplate().update("update saga_decision set outcome = ? where saga_id = ?",
+                            ABORTED, saga.id());
+                    return ABORTED;
+                }
+
+                record(target, saga.toAccountId(), TransactionType.TRANSFER, saga.amount(), saga.fromAccountId(),
+                        saga.id(), null);
+                return CREDITED;
+            });
+        } catch (DuplicateKeyException e) {
+            return target.jdbcTemplate().queryForObject("select outcome from saga_decision where saga_id = ?",
+                    String.class, saga.id());
+        }
+    }
+
+    private void credit(Shard shard, long accountId, long minorUnits, String notFoundMessage) {
+
+        if (shard.jdbcTemplate().update(CREDIT, minorUnits, accountId) == 0) {
+            throw new RuntimeException(notFoundMessage);
+        }
+    }
+
+    private void debit(Shard shard, long accountId, long minorUnits, String notFoundMessage) {
+
+        if (shard.jdbcTemplate().update(DEBIT, minorUnits, accountId, minorUnits) == 0) {
+            Integer exists = shard.jdbcTemplate().queryForObject(
+                    "select count(*) from account_balance where id = ?", Integer.class, accountId);
+            throw new RuntimeException(exists != null && exists > 0 ? "Insufficient balance" : notFoundMessage);
+        }
+    }
+
+    private void record(Shard shard, long accountId, TransactionType type, long signedAmount, Long counterpartyId,
+                        String sagaId, String description) {
+
+        shard.jdbcTemplate().update(INSERT_MOVEMENT, accountId, type.name(), signedAmount, counterpartyId, sagaId,
+                description, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private Shard shardFor(long accountId) {
+        return shards.get(ring.shardFor(accountId));
+    }
+}
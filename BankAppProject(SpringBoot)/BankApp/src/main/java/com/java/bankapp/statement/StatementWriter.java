@@ -0,0 +1,238 @@
+package com.java.bankapp.statement;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Encodes statement lines as CSV or NDJSON straight into one reusable byte buffer, which is
+ * written to the output stream whenever it fills. Numbers and timestamps are written digit
+ * by digit, so a line costs no intermediate strings.
+ */
+public class StatementWriter {
+
+    private static final byte[] CSV_HEADER =
+            "id,date,type,direction,amount,counterparty,description\n".getBytes();
+
+    private final OutputStream out;
+    private final boolean csv;
+    private final byte[] buffer;
+    private int position;
+
+    public StatementWriter(OutputStream out, boolean csv, int bufferSize) {
+        this.out = out;
+        this.csv = csv;
+        this.buffer = new byte[Math.max(bufferSize, 256)];
+    }
+
+    public void writeHeader() throws IOException {
+        if (csv) {
+            ensure(CSV_HEADER.length);
+            System.arraycopy(CSV_HEADER, 0, buffer, position, CSV_HEADER.length);
+            position += CSV_HEADER.length;
+        }
+    }
+
+    public void writeLine(long id, LocalDateTime date, String type, boolean credit, long amountMinorUnits,
+                          Long counterparty, String description) throws IOException {
+
+        if (csv) {
+            putLong(id);
+            putAscii(",");
+            putDate(date);
+            putAscii(",");
+            putAscii(type);
+            putAscii(credit ? ",CREDIT," : ",DEBIT,");
+            putAmount(amountMinorUnits);
+            putAscii(",");
+            if (counterparty != null) {
+                putLong(counterparty);
+            }
+            putAscii(",");
+            if (description != null) {
+                putCsv(description);
+            }
+        } else {
+            putAscii("{\"id\":");
+            putLong(id);
+            putAscii(",\"date\":\"");
+            putDate(date);
+            putAscii("\",\"type\":\"");
+            putAscii(type);
+            putAscii(credit ? "\",\"direction\":\"CREDIT\",\"amount\":" : "\",\"direction\":\"DEBIT\",\"amount\":");
+            putAmount(amountMinorUnits);
+            putAscii(",\"counterparty\":");
+            if (counterparty != null) {
+                putLong(counterparty);
+            } else {
+                putAscii("null");
+            }
+            putAscii(",\"description\":");
+            if (description != null) {
+                putJson(description);
+            } else {
+                putAscii("null");
+            }
+            putAscii("}");
+        }
+        putAscii("\n");
+    }
+
+    public void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        out.flush();
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void putAscii(String value) throws IOException {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer[position++] = (byte) value.charAt(i);
+        }
+    }
+
+    // Works on the negated value so Long.MIN_VALUE needs no special case
+    private void putLong(long value) throws IOException {
+        ensure(20);
+        long remaining = value;
+        if (value < 0) {
+            buffer[position++] = '-';
+        } else {
+            remaining = -value;
+        }
+
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' - remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+    }
+
+    // Minor units with the Money scale of two decimal places, e.g. 1250 -> 12.50
+    private void putAmount(long minorUnits) throws IOException {
+        long units = minorUnits / 100;
+        int cents = (int) Math.abs(minorUnits % 100);
+        if (minorUnits < 0 && units == 0) {
+            putAscii("-");
+        }
+        putLong(units);
+        ensure(3);
+        buffer[position++] = '.';
+        buffer[position++] = (byte) ('0' + cents / 10);
+        buffer[position++] = (byte) ('0' + cents % 10);
+    }
+
+    // ISO-8601 to the millisecond: 2026-03-01T09:30:00.000
+    private void putDate(LocalDateTime date) throws IOException {
+        ensure(23);
+        putDigits(date.getYear(), 4);
+        buffer[position++] = '-';
+        putDigits(date.getMonthValue(), 2);
+        buffer[position++] = '-';
+        putDigits(date.getDayOfMonth(), 2);
+        buffer[position++] = 'T';
+        putDigits(date.getHour(), 2);
+        buffer[position++] = ':';
+        putDigits(date.getMinute(), 2);
+        buffer[position++] = ':';
+        putDigits(date.getSecond(), 2);
+        buffer[position++] = '.';
+        putDigits(date.getNano() / 1_000_000, 3);
+    }
+
+    private void putDigits(int value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void putCsv(String value) throws IOException {
+
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (quote) {
+            putAscii("\"");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                putAscii("\"\"");
+            } else {
+                i = putChar(value, i);
+            }
+        }
+        if (quote) {
+            putAscii("\"");
+        }
+    }
+
+    private void putJson(String value) throws IOException {
+        putAscii("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> putAscii("\\\"");
+                case '\\' -> putAscii("\\\\");
+                case '\n' -> putAscii("\\n");
+                case '\r' -> putAscii("\\r");
+                case '\t' -> putAscii("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        putAscii("\\u00");
+                        putAscii(Character.toString(Character.forDigit(c >> 4, 16)));
+                        putAscii(Character.toString(Character.forDigit(c & 0xF, 16)));
+                    } else {
+                        i = putChar(value, i);
+                    }
+                }
+            }
+        }
+        putAscii("\"");
+    }
+
+    // UTF-8 encodes the character at index, returning the index of its last char
+    private int putChar(String value, int index) throws IOException {
+
+        ensure(4);
+        int codePoint = value.codePointAt(index);
+
+        if (codePoint < 0x80) {
+            buffer[position++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            buffer[position++] = (byte) (0xC0 | codePoint >> 6);
+            buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+        } else if (codePoint < 0x10000) {
+            buffer[position++] = (byte) (0xE0 | codePoint >> 12);
+            buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+            buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+        } else {
+            buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+            buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+            buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+            buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+        }
+
+        return index + Character.charCount(codePoint) - 1;
+    }
+}
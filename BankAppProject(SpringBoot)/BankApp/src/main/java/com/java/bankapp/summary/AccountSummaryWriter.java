@@ -0,0 +1,151 @@
+package com.java.bankapp.summary;
+
+import com.java.bankapp.entity.TransactionType;
+import jakarta.persistence.EntityManager;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies {@link SummaryDelta}s to {@code account_summary} with relative UPDATEs inside the
+ * caller's transaction, so a summary row changes exactly when the transactions behind it
+ * commit. A row missing for an account's first transaction of a type is inserted.
+ *
+ * <p>Summary rows are always written last in a unit of work, after its account rows, so
+ * writers that lock accounts never wait on each other in a cycle through a summary row.
+ */
+@Component
+public class AccountSummaryWriter {
+
+    private static final String INCREMENT = """
+            update account_summary
+            set total_in = total_in + ?, total_out = total_out + ?, transaction_count = transaction_count + ?,
+                last_activity_at = greatest(last_activity_at, ?)
+            where account_id = ? and transaction_type = ?
+            """;
+
+    private static final String INSERT = """
+            insert into account_summary (account_id, transaction_type, total_in, total_out, transaction_count, last_activity_at)
+            values (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String REBUILD = """
+            insert into account_summary (account_id, transaction_type, total_in, total_out, transaction_count, last_activity_at)
+            select account_id, transaction_type, sum(amount_in), sum(amount_out), sum(counted), max(transaction_date)
+            from (
+                select to_account_id as account_id, transaction_type, amount as amount_in, 0 as amount_out,
+                       1 as counted, transaction_date
+                from transaction where to_account_id is not null
+                union all
+                select from_account_id, transaction_type, 0, amount,
+                       case when to_account_id = from_account_id then 0 else 1 end, transaction_date
+                from transaction where from_account_id is not null
+            ) movements
+            group by account_id, transaction_type
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public AccountSummaryWriter(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    // Collects the change and applies everything collected in this transaction just before it commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyAtCommit(TransactionType type, Long fromAccountId, Long toAccountId,
+                              long minorUnits, LocalDateTime at) {
+
+        SummaryDelta delta = (SummaryDelta) TransactionSynchronizationManager.getResource(this);
+        if (delta == null) {
+            SummaryDelta pending = new SummaryDelta();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Write the account rows first so the lock order matches every other writer
+                    try {
+                        entityManager.flush();
+                    } catch (RuntimeException e) {
+                        // Surface version conflicts as Spring exceptions, as the commit itself would
+                        RuntimeException translated = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e);
+                        throw translated != null ? translated : e;
+                    }
+                    apply(pending);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AccountSummaryWriter.this);
+                }
+            });
+            delta = pending;
+        }
+
+        delta.add(type, fromAccountId, toAccountId, minorUnits, at);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(SummaryDelta delta) {
+
+        if (delta.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<SummaryDelta.Key, SummaryDelta.Totals>> entries = new ArrayList<>(delta.totals().entrySet());
+        int[][] updated = jdbcTemplate.batchUpdate(INCREMENT, entries, entries.size(), (ps, entry) -> {
+            SummaryDelta.Totals totals = entry.getValue();
+            ps.setLong(1, totals.in);
+            ps.setLong(2, totals.out);
+            ps.setLong(3, totals.count);
+            ps.setTimestamp(4, Timestamp.valueOf(totals.lastActivityAt));
+            ps.setLong(5, entry.getKey().accountId());
+            ps.setString(6, entry.getKey().transactionType().name());
+        });
+
+        int i = 0;
+        for (int[] statementCounts : updated) {
+            for (int count : statementCounts) {
+                if (count == 0) {
+                    insert(entries.get(i));
+                }
+                i++;
+            }
+        }
+    }
+
+    // Replaces every summary row with totals recomputed from the Transaction table
+    @Transactional
+    public int rebuild() {
+        jdbcTemplate.update("delete from account_summary");
+        return jdbcTemplate.update(REBUILD);
+    }
+
+    private void insert(Map.Entry<SummaryDelta.Key, SummaryDelta.Totals> entry) {
+
+        SummaryDelta.Key key = entry.getKey();
+        SummaryDelta.Totals totals = entry.getValue();
+        Timestamp at = Timestamp.valueOf(totals.lastActivityAt);
+
+        try {
+            jdbcTemplate.update(INSERT, key.accountId(), key.transactionType().name(),
+                    totals.in, totals.out, totals.count, at);
+        } catch (DuplicateKeyException e) {
+            // A concurrent first transaction created the row; add to it instead
+            jdbcTemplate.update(INCREMENT, totals.in, totals.out, totals.count, at,
+                    key.accountId(), key.transactionType().name());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.java.bankapp.summary;
+
+import com.java.bankapp.entity.TransactionType;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summary changes collected from one or more transactions, folded per account and type.
+ * Entries iterate in account id order so every writer locks summary rows in the same order.
+ */
+public final class SummaryDelta {
+
+    record Key(long accountId, TransactionType transactionType) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byAccount = Long.compare(accountId, other.accountId);
+            return byAccount != 0 ? byAccount : transactionType.compareTo(other.transactionType);
+        }
+    }
+
+    static final class Totals {
+        long in;
+        long out;
+        long count;
+        LocalDateTime lastActivityAt;
+    }
+
+    private final Map<Key, Totals> totals = new TreeMap<>();
+
+    public SummaryDelta add(TransactionType type, Long fromAccountId, Long toAccountId,
+                            long minorUnits, LocalDateTime at) {
+
+        if (fromAccountId != null) {
+            Totals from = totalsFor(fromAccountId, type, at);
+            from.out += minorUnits;
+            from.count++;
+        }
+        if (toAccountId != null) {
+            Totals to = totalsFor(toAccountId, type, at);
+            to.in += minorUnits;
+            // A transfer to the same account is still one transaction
+            if (!toAccountId.equals(fromAccountId)) {
+                to.count++;
+            }
+        }
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return totals.isEmpty();
+    }
+
+    Map<Key, Totals> totals() {
+        return totals;
+    }
+
+    private Totals totalsFor(long accountId, TransactionType type, LocalDateTime at) {
+        Totals entry = totals.computeIfAbsent(new Key(accountId, type), key -> new Totals());
+        if (entry.lastActivityAt == null || at.isAfter(entry.lastActivityAt)) {
+            entry.lastActivityAt = at;
+        }
+        return entry;
+    }
+}
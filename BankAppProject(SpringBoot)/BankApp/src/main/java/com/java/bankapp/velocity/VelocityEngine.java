@@ -0,0 +1,246 @@
+package com.java.bankapp.velocity;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.java.bankapp.config.VelocityProperties;
+import com.java.bankapp.entity.AccountType;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts each account's withdrawals and outgoing transfers over sliding 1 minute, 1 hour
+ * and 24 hour windows, in memory and without locks. Every window is split into
+ * {@link #BUCKETS} buckets plus the bucket that is sliding out, which is weighted by the
+ * part of it still inside the window. A bucket word packs a 20-bit bucket tag with a
+ * 44-bit count or amount, so rolling a bucket over and adding to it is a single CAS.
+ *
+ * <p>{@link #reserve} adds the movement first and then checks the limits, undoing it if
+ * one is exceeded, so concurrent callers can never overshoot a limit together. Because the
+ * sliding-out bucket is weighted as if evenly filled, a movement is fully forgotten one
+ * bucket after its window has passed.
+ */
+@Component
+@ConditionalOnProperty(name = "bankapp.velocity.enabled", havingValue = "true")
+public class VelocityEngine {
+
+    static final int BUCKETS = 4;
+
+    private static final int SLOTS = BUCKETS + 1;
+    private static final int WINDOWS = VelocityWindow.values().length;
+    private static final int VALUE_BITS = 44;
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+    private static final long TAG_MASK = (1L << (Long.SIZE - VALUE_BITS)) - 1;
+
+    private static final long[] BUCKET_MILLIS = new long[WINDOWS];
+
+    static {
+        for (VelocityWindow window : VelocityWindow.values()) {
+            BUCKET_MILLIS[window.ordinal()] = window.getLength().toMillis() / BUCKETS;
+        }
+    }
+
+    private static final class AccountWindows {
+
+        private final AccountType accountType;
+        // [window][slot][count, amount]
+        private final AtomicLongArray words = new AtomicLongArray(WINDOWS * SLOTS * 2);
+
+        private AccountWindows(AccountType accountType) {
+            this.accountType = accountType;
+        }
+    }
+
+    private final Map<AccountType, VelocityProperties.Limit[]> limits = new EnumMap<>(AccountType.class);
+    private final Cache<Long, AccountWindows> accounts;
+    private final Function<Long, AccountType> accountTypes;
+    private final LongSupplier clock;
+
+    @Autowired
+    public VelocityEngine(VelocityProperties properties, AccountRepository accountRepository) {
+        // An unknown account is not tracked; the mutation itself reports it as not found
+        this(properties, accountId -> accountRepository.findAccountTypeById(accountId).orElse(null),
+                System::currentTimeMillis);
+    }
+
+    public VelocityEngine(VelocityProperties properties, Function<Long, AccountType> accountTypes, LongSupplier clock) {
+        this.accountTypes = accountTypes;
+        this.clock = clock;
+
+        properties.getLimits().forEach((type, byWindow) -> {
+            VelocityProperties.Limit[] windowLimits = new VelocityProperties.Limit[WINDOWS];
+            byWindow.forEach((window, limit) -> windowLimits[window.ordinal()] = limit);
+            limits.put(type, windowLimits);
+        });
+
+        // An account idle for longer than the longest window has nothing left to count
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumAccounts())
+                .expireAfterAccess(VelocityWindow.DAY.getLength().plusMillis(BUCKET_MILLIS[VelocityWindow.DAY.ordinal()]))
+                .build();
+    }
+
+    /**
+     * Counts an outgoing movement against the account's windows, or throws if that would
+     * exceed a limit. Returns the time it was counted at, to pass to {@link #release} if the
+     * movement then fails; -1 when the account type has no limits.
+     */
+    public long reserve(Long accountId, Money amount) {
+
+        // A negative delta would borrow from the bucket tag and make the window look stale
+        if (amount == null || !amount.isPositive()) {
+            throw new RuntimeException("Amount must be positive");
+        }
+        if (amount.minorUnits() > VALUE_MASK) {
+            throw new RuntimeException("Amount is too large");
+        }
+
+        AccountWindows windows = accounts.getIfPresent(accountId);
+        if (windows == null) {
+            // Nothing is cached for an unknown account, so made-up ids cannot fill the cache
+            windows = accounts.get(accountId, id -> {
+                AccountType accountType = accountTypes.apply(id);
+                return accountType != null ? new AccountWindows(accountType) : null;
+            });
+            if (windows == null) {
+                return -1;
+            }
+        }
+        VelocityProperties.Limit[] windowLimits = limits.get(windows.accountType);
+        if (windowLimits == null) {
+            return -1;
+        }
+
+        long now = clock.getAsLong();
+        long minorUnits = amount.minorUnits();
+        AtomicLongArray words = windows.words;
+
+        for (int w = 0; w < WINDOWS; w++) {
+            long bucket = now / BUCKET_MILLIS[w];
+            int index = index(w, bucket);
+            // A bucket that cannot hold the movement is far past any limit
+            if (!addToBucket(words, index, bucket, 1)) {
+                release(words, now, minorUnits, w - 1);
+                throw exceeded(w);
+            }
+            if (!addToBucket(words, index + 1, bucket, minorUnits)) {
+                subtractIfCurrent(words, index, bucket, 1);
+                release(words, now, minorUnits, w - 1);
+                throw exceeded(w);
+            }
+
+            VelocityProperties.Limit limit = windowLimits[w];
+            if (limit != null
+                    && (limit.getMaxCount() > 0 && sum(words, w, 0, now, bucket) > limit.getMaxCount()
+                    || limit.getMaxAmount() != null && sum(words, w, 1, now, bucket) > limit.getMaxAmount().minorUnits())) {
+                release(words, now, minorUnits, w);
+                throw exceeded(w);
+            }
+        }
+
+        return now;
+    }
+
+    // Takes back a reservation whose movement did not happen; a no-op once its buckets have rolled over
+    public void release(Long accountId, long reservedAt, Money amount) {
+        if (reservedAt < 0) {
+            return;
+        }
+        AccountWindows windows = accounts.getIfPresent(accountId);
+        if (windows != null) {
+            release(windows.words, reservedAt, amount.minorUnits(), WINDOWS - 1);
+        }
+    }
+
+    public long trackedAccounts() {
+        return accounts.estimatedSize();
+    }
+
+    // Undoes one counted movement in windows 0..lastWindow
+    private static void release(AtomicLongArray words, long at, long minorUnits, int lastWindow) {
+        for (int w = 0; w <= lastWindow; w++) {
+            long bucket = at / BUCKET_MILLIS[w];
+            int index = index(w, bucket);
+            subtractIfCurrent(words, index, bucket, 1);
+            subtractIfCurrent(words, index + 1, bucket, minorUnits);
+        }
+    }
+
+    private static RuntimeException exceeded(int window) {
+        return new RuntimeException("Velocity limit exceeded for " + VelocityWindow.values()[window].name().toLowerCase()
+                + " window, please try again later");
+    }
+
+    // False, adding nothing, if the bucket's value would overflow into its tag
+    private static boolean addToBucket(AtomicLongArray words, int index, long bucket, long delta) {
+
+        if (delta <= 0 || delta > VALUE_MASK) {
+            throw new RuntimeException("Velocity bucket delta out of range: " + delta);
+        }
+
+        long tag = bucket & TAG_MASK;
+        while (true) {
+            long current = words.get(index);
+            long next;
+            if (current >>> VALUE_BITS == tag) {
+                if ((current & VALUE_MASK) > VALUE_MASK - delta) {
+                    return false;
+                }
+                next = current + delta;
+            } else {
+                next = tag << VALUE_BITS | delta;
+            }
+            if (words.compareAndSet(index, current, next)) {
+                return true;
+            }
+        }
+    }
+
+    private static void subtractIfCurrent(AtomicLongArray words, int index, long bucket, long delta) {
+        long tag = bucket & TAG_MASK;
+        while (true) {
+            long current = words.get(index);
+            if (current >>> VALUE_BITS != tag || (current & VALUE_MASK) < delta) {
+                return;
+            }
+            if (words.compareAndSet(index, current, current - delta)) {
+                return;
+            }
+        }
+    }
+
+    // Sum of the window's full buckets plus the still-covered share of the bucket sliding out
+    private static long sum(AtomicLongArray words, int window, int field, long now, long bucket) {
+
+        long width = BUCKET_MILLIS[window];
+
+        long total = 0;
+        for (int k = 0; k < BUCKETS; k++) {
+            total += valueAt(words, window, bucket - k, field);
+        }
+
+        long oldest = valueAt(words, window, bucket - BUCKETS, field);
+        if (oldest > 0) {
+            long uncovered = now - bucket * width;
+            total += (long) Math.ceil(oldest * ((double) (width - uncovered) / width));
+        }
+        return total;
+    }
+
+    private static long valueAt(AtomicLongArray words, int window, long bucket, int field) {
+        long word = words.get(index(window, bucket) + field);
+        return word >>> VALUE_BITS == (bucket & TAG_MASK) ? word & VALUE_MASK : 0;
+    }
+
+    private static int index(int window, long bucket) {
+        return (window * SLOTS + (int) Math.floorMod(bucket, (long) SLOTS)) * 2;
+    }
+}
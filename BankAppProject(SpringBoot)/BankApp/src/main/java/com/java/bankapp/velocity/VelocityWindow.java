@@ -0,0 +1,19 @@
+package com.java.bankapp.velocity;
+
+import java.time.Duration;
+
+public enum VelocityWindow {
+    MINUTE(Duration.ofMinutes(1)),
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1));
+
+    private final Duration length;
+
+    VelocityWindow(Duration length) {
+        this.length = length;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+}
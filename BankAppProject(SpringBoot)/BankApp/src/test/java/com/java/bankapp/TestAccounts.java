@@ -0,0 +1,24 @@
+package com.java.bankapp;
+
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+
+/**
+ * Shared account setup for tests that only care about an account's opening balance.
+ */
+public final class TestAccounts {
+
+    private TestAccounts() {
+    }
+
+    public static Account open(AccountRepository accountRepository, Money balance) {
+        Account account = new Account();
+        account.setBalance(balance);
+        return accountRepository.save(account);
+    }
+
+    public static Long openEmpty(AccountRepository accountRepository) {
+        return open(accountRepository, Money.ZERO).getId();
+    }
+}
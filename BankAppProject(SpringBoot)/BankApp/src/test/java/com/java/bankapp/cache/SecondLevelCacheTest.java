@@ -0,0 +1,148 @@
+package com.java.bankapp.cache;
+
+import com.java.bankapp.dto.AccountDTO;
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.entity.Customer;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.repository.CustomerRepository;
+import com.java.bankapp.service.AccountService;
+import com.java.bankapp.service.SubLedgerService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SubLedgerService subLedgerService;
+
+    @Test
+    void warmReadsUnderLoadIssueNoSelects() throws Exception {
+
+        Customer customer = new Customer();
+        customer.setFirstName("Cached");
+        customer.setEmail("cached@example.com");
+        Long customerId = customerRepository.save(customer).getId();
+
+        for (int i = 0; i < 3; i++) {
+            Account account = new Account();
+            account.setCustomer(customer);
+            account.setBalance(Money.valueOf("10"));
+            accountRepository.save(account);
+        }
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Runnable read = () -> readOnly.executeWithoutResult(status -> {
+            Customer loaded = customerRepository.findById(customerId).orElseThrow();
+            assertEquals(3, loaded.getAccounts().size());
+            assertEquals(3, accountService.getAccountsByCustomer(customerId).size());
+        });
+
+        read.run();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        try (ExecutorService readers = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                futures.add(readers.submit(read));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(400, statistics.getQueryCacheHitCount());
+        assertEquals(400, statistics.getDomainDataRegionStatistics("customer").getHitCount());
+        assertEquals(400, statistics.getDomainDataRegionStatistics("customer-accounts").getHitCount());
+        assertEquals(0, statistics.getDomainDataRegionStatistics("account").getMissCount());
+    }
+
+    @Test
+    void writesThroughHibernateAreVisibleToTheNextRead() {
+
+        Customer customer = new Customer();
+        customer.setFirstName("Writer");
+        customer.setEmail("writer@example.com");
+        Long customerId = customerRepository.save(customer).getId();
+        Long accountId = accountService.createAccount(customerId, null).getId();
+
+        assertEquals(1, accountService.getAccountsByCustomer(customerId).size());
+
+        accountService.deposit(accountId, Money.valueOf("25"));
+        accountService.createAccount(customerId, null);
+
+        List<AccountDTO> accounts = accountService.getAccountsByCustomer(customerId);
+        assertEquals(2, accounts.size());
+        assertTrue(accounts.stream().anyMatch(account -> Money.valueOf("25").equals(account.getBalance())));
+    }
+
+    @Test
+    void subLedgerCreditKeepsCustomerAndAccountRegionsWarm() {
+
+        Customer customer = new Customer();
+        customer.setFirstName("Sharded");
+        customer.setEmail("sharded@example.com");
+        Long customerId = customerRepository.save(customer).getId();
+        Long accountId = accountService.createAccount(customerId, null).getId();
+        accountService.createAccount(customerId, null);
+        subLedgerService.enableSharding(accountId, 4);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Runnable read = () -> transactionTemplate.executeWithoutResult(status -> {
+            assertEquals(2, customerRepository.findById(customerId).orElseThrow().getAccounts().size());
+            assertEquals(2, accountService.getAccountsByCustomer(customerId).size());
+        });
+
+        read.run();
+
+        transactionTemplate.executeWithoutResult(status ->
+                subLedgerService.credit(accountRepository.findById(accountId).orElseThrow(), Money.valueOf("5")));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        read.run();
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getQueryCacheMissCount());
+        assertEquals(0, statistics.getDomainDataRegionStatistics("customer").getMissCount());
+        assertEquals(0, statistics.getDomainDataRegionStatistics("customer-accounts").getMissCount());
+        assertEquals(0, statistics.getDomainDataRegionStatistics("account").getMissCount());
+        assertEquals(Money.valueOf("5"), accountService.getAccount(accountId).getBalance());
+    }
+}
@@ -0,0 +1,155 @@
+package com.java.bankapp.eventsourcing;
+
+import com.java.bankapp.config.JournalProperties;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.journal.TransactionJournal;
+import com.java.bankapp.money.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventReplayerTest {
+
+    private static final int ACCOUNTS = 50;
+
+    @TempDir
+    Path directory;
+
+    private TransactionJournal journal;
+    private long[] expected;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory.resolve("journal").toString());
+        properties.setSegmentSize(256L * 64); // 256 records per segment
+        properties.setFsync(JournalProperties.FsyncMode.NONE);
+        journal = new TransactionJournal(properties);
+        expected = new long[ACCOUNTS + 1];
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.close();
+    }
+
+    // Deposits into every account, then transfers and withdrawals spread over them
+    private void append(int records) {
+        for (int i = 0; i < records; i++) {
+            long sequence = journal.getLastSequence() + 1;
+            long account = sequence % ACCOUNTS + 1;
+            long minorUnits = sequence % 97 + 1;
+
+            if (sequence % 5 == 0) {
+                journal.append(TransactionType.DEPOSIT, null, account, Money.ofMinor(minorUnits * 100));
+                expected[(int) account] += minorUnits * 100;
+            } else if (sequence % 11 == 0) {
+                journal.append(TransactionType.WITHDRAW, account, null, Money.ofMinor(minorUnits));
+                expected[(int) account] -= minorUnits;
+            } else {
+                long to = (sequence * 7) % ACCOUNTS + 1;
+                journal.append(TransactionType.TRANSFER, account, to, Money.ofMinor(minorUnits));
+                expected[(int) account] -= minorUnits;
+                expected[(int) to] += minorUnits;
+            }
+        }
+    }
+
+    private void assertBalances(BalanceTable[] partitions) {
+        for (int account = 1; account <= ACCOUNTS; account++) {
+            assertEquals(expected[account],
+                    partitions[BalanceTable.partitionOf(account, partitions.length)].get(account),
+                    "balance of account " + account);
+        }
+    }
+
+    @Test
+    void parallelReplayMatchesTheJournal() {
+
+        append(5_000);
+
+        // Slices of 300 records cross segment boundaries and run on several workers
+        EventReplayer replayer = new EventReplayer(journal, 4, 300);
+        BalanceTable[] partitions = replayer.newPartitions();
+        replayer.replay(partitions, 1, journal.getLastSequence());
+
+        assertBalances(partitions);
+    }
+
+    @Test
+    void rebuildReplaysOnlyTheRecordsAfterTheSnapshot() {
+
+        BalanceSnapshotStore snapshots = new BalanceSnapshotStore(directory.resolve("snapshots"), 2);
+        EventReplayer replayer = new EventReplayer(journal, 3, 500);
+
+        append(2_000);
+        EventReplayer.Rebuild first = replayer.rebuild(snapshots);
+        assertEquals(0, first.snapshotSequence());
+        assertEquals(2_000, first.eventsReplayed());
+        snapshots.write(first.lastSequence(), first.partitions());
+
+        append(1_234);
+        EventReplayer.Rebuild second = replayer.rebuild(snapshots);
+        assertEquals(2_000, second.snapshotSequence());
+        assertEquals(1_234, second.eventsReplayed());
+        assertEquals(ACCOUNTS, second.accounts());
+        assertBalances(second.partitions());
+
+        // A different partition count reads the same snapshot
+        assertBalances(new EventReplayer(journal, 1).rebuild(snapshots).partitions());
+    }
+
+    @Test
+    void corruptSnapshotFallsBackToTheOneBefore() throws Exception {
+
+        Path snapshotDirectory = directory.resolve("snapshots");
+        BalanceSnapshotStore snapshots = new BalanceSnapshotStore(snapshotDirectory, 2);
+        EventReplayer replayer = new EventReplayer(journal, 2);
+
+        append(1_000);
+        snapshots.write(1_000, replayer.rebuild(snapshots).partitions());
+        append(1_000);
+        snapshots.write(2_000, replayer.rebuild(snapshots).partitions());
+        append(1_000);
+        snapshots.write(3_000, replayer.rebuild(snapshots).partitions());
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(snapshotDirectory)) {
+            files = list.sorted(Comparator.reverseOrder()).toList();
+        }
+        assertEquals(2, files.size());
+
+        try (RandomAccessFile newest = new RandomAccessFile(files.get(0).toFile(), "rw")) {
+            newest.seek(40);
+            newest.writeLong(123_456_789L);
+        }
+
+        EventReplayer.Rebuild rebuild = replayer.rebuild(snapshots);
+        assertEquals(2_000, rebuild.snapshotSequence());
+        assertEquals(1_000, rebuild.eventsReplayed());
+        assertBalances(rebuild.partitions());
+    }
+
+    @Test
+    void snapshotAheadOfTheJournalIsRejected() {
+
+        BalanceSnapshotStore snapshots = new BalanceSnapshotStore(directory.resolve("snapshots"), 2);
+        EventReplayer replayer = new EventReplayer(journal, 2);
+
+        append(10);
+        snapshots.write(500, replayer.rebuild(snapshots).partitions());
+
+        assertThrows(RuntimeException.class, () -> replayer.rebuild(snapshots));
+    }
+}
@@ -0,0 +1,94 @@
+package com.java.bankapp.gate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GatedDataSourceTest {
+
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger maxOpen = new AtomicInteger();
+
+    private final AbstractDataSource target = new AbstractDataSource() {
+        @Override
+        public Connection getConnection() {
+            maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName())) {
+                            open.decrementAndGet();
+                        }
+                        return null;
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+    };
+
+    @Test
+    void virtualThreadsNeverHoldMoreConnectionsThanPermits() throws Exception {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GatedDataSource gated = new GatedDataSource(target, 4, Duration.ofSeconds(30), registry);
+
+        int callers = 2_000;
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                pool.execute(() -> {
+                    try {
+                        Connection connection = gated.getConnection();
+                        try {
+                            Thread.sleep(1);
+                        } finally {
+                            connection.close();
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        assertTrue(maxOpen.get() <= 4);
+        assertEquals(0, open.get());
+        assertEquals(4, gated.getAvailablePermits());
+        assertEquals(callers, registry.get("bankapp.db.gate.wait").timer().count());
+    }
+
+    @Test
+    void waitingPastTheTimeoutFailsFast() throws Exception {
+
+        GatedDataSource gated = new GatedDataSource(target, 1, Duration.ofMillis(50), new SimpleMeterRegistry());
+
+        Connection held = gated.getConnection();
+        try {
+            assertThrows(SQLTransientConnectionException.class, gated::getConnection);
+        } finally {
+            held.close();
+        }
+
+        // Closing twice must not hand out an extra permit
+        Connection connection = gated.getConnection();
+        connection.close();
+        connection.close();
+        assertEquals(1, gated.getAvailablePermits());
+    }
+}
@@ -0,0 +1,82 @@
+package com.java.bankapp.gate;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fires concurrent deposits at the virtual-thread web tier, with the database gate in front
+ * of a small pool, and checks every one is served and applied. Latency against the
+ * platform-thread mode is measured by {@code VirtualThreadLatencyBenchmark}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "bankapp.db-gate.acquire-timeout=60s"
+})
+class VirtualThreadLoadTest {
+
+    private static final int CLIENTS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void everyConcurrentDepositIsServedThroughTheGate() throws Exception {
+
+        List<Long> accountIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            accountIds.add(TestAccounts.openEmpty(accountRepository));
+        }
+
+        List<Future<Integer>> statuses = new ArrayList<>();
+
+        try (ExecutorService clientPool = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder().executor(clientPool).build()) {
+
+            for (int i = 0; i < CLIENTS; i++) {
+                Long accountId = accountIds.get(i % accountIds.size());
+                HttpRequest request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/accounts/deposit?accountId=" + accountId + "&amount=1"))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+
+                statuses.add(clientPool.submit(
+                        () -> http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()));
+            }
+
+            int ok = 0;
+            for (Future<Integer> status : statuses) {
+                if (status.get() == 200) {
+                    ok++;
+                }
+            }
+            assertEquals(CLIENTS, ok);
+        }
+
+        Money total = accountRepository.findAllById(accountIds).stream()
+                .map(Account::getBalance)
+                .reduce(Money.ZERO, Money::plus);
+        assertEquals(Money.valueOf(String.valueOf(CLIENTS)), total);
+    }
+}
@@ -0,0 +1,168 @@
+package com.java.bankapp.groupcommit;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.config.GroupCommitProperties;
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.entity.Transaction;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.id.SequenceIdAllocator;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.service.TransactionService;
+import com.java.bankapp.summary.AccountSummaryWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "bankapp.group-commit.enabled=true",
+        "bankapp.group-commit.ring-size=256",
+        "bankapp.group-commit.max-batch-size=100",
+        "bankapp.group-commit.max-latency=2ms"
+})
+class GroupCommitRecorderTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SequenceIdAllocator idAllocator;
+
+    @Autowired
+    private GroupCommitProperties properties;
+
+    @Autowired
+    private AccountSummaryWriter summaryWriter;
+
+    @Test
+    void concurrentRecordsAreGroupCommittedAndFuturesCarryTheirIds() throws Exception {
+
+        Long accountId = TestAccounts.openEmpty(accountRepository);
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Void>> callers = IntStream.range(0, 2000)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                        Transaction transaction = new Transaction();
+                        transaction.setTransactionType(TransactionType.DEPOSIT);
+                        transaction.setAmount(Money.ofMinor(i + 1));
+                        transaction.setToAccount(accountRepository.getReferenceById(accountId));
+                        ids.add(transactionService.recordTransactionAsync(transaction).join());
+                    }, executor))
+                    .toList();
+            CompletableFuture.allOf(callers.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+        }
+
+        assertEquals(2000, ids.size());
+        assertEquals(2000, jdbcTemplate.queryForObject(
+                "select count(*) from transaction where to_account_id = ?", Integer.class, accountId));
+        assertEquals(2000L * 2001 / 2, jdbcTemplate.queryForObject(
+                "select sum(amount) from transaction where to_account_id = ?", Long.class, accountId));
+
+        long batches = meterRegistry.get("bankapp.group.commit.batch.size").summary().count();
+        assertTrue(batches < 2000, "expected grouped inserts but got " + batches + " batches");
+    }
+
+    @Test
+    void aRowThatCannotBeInsertedFailsOnlyItsOwnFuture() {
+
+        Account saved = TestAccounts.open(accountRepository, Money.ZERO);
+
+        Transaction good = new Transaction();
+        good.setTransactionType(TransactionType.DEPOSIT);
+        good.setAmount(Money.ofMinor(5));
+        good.setToAccount(saved);
+
+        Account missing = new Account();
+        missing.setId(Long.MAX_VALUE);
+        Transaction bad = new Transaction();
+        bad.setTransactionType(TransactionType.DEPOSIT);
+        bad.setAmount(Money.ofMinor(5));
+        bad.setToAccount(missing);
+
+        CompletableFuture<Long> badFuture = transactionService.recordTransactionAsync(bad);
+        CompletableFuture<Long> goodFuture = transactionService.recordTransactionAsync(good);
+
+        assertThrows(ExecutionException.class, () -> badFuture.get(10, TimeUnit.SECONDS));
+        assertTrue(goodFuture.join() > 0);
+    }
+
+    @Test
+    void movementFuturesFollowTheCallersTransactionAndCountLostRows() throws Exception {
+
+        Long accountId = TestAccounts.openEmpty(accountRepository);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.execute(status -> transactionService.recordMovement(
+                TransactionType.DEPOSIT, null, accountId, Money.ofMinor(3))).get(10, TimeUnit.SECONDS);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from transaction where to_account_id = ?", Integer.class, accountId));
+
+        CompletableFuture<Void> rolledBack = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return transactionService.recordMovement(TransactionType.DEPOSIT, null, accountId, Money.ofMinor(4));
+        });
+        assertThrows(ExecutionException.class, () -> rolledBack.get(10, TimeUnit.SECONDS));
+
+        double lostBefore = meterRegistry.get("bankapp.group.commit.lost").counter().count();
+        CompletableFuture<Void> missingAccount = transactionTemplate.execute(status -> transactionService.recordMovement(
+                TransactionType.DEPOSIT, null, Long.MAX_VALUE, Money.ofMinor(5)));
+        assertThrows(ExecutionException.class, () -> missingAccount.get(10, TimeUnit.SECONDS));
+        assertEquals(lostBefore + 1, meterRegistry.get("bankapp.group.commit.lost").counter().count());
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from transaction where to_account_id = ?", Integer.class, accountId));
+    }
+
+    @Test
+    void aStoppedRecorderRefusesRowsInsteadOfStrandingThem() throws Exception {
+
+        Long accountId = TestAccounts.openEmpty(accountRepository);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GroupCommitRecorder recorder = new GroupCommitRecorder(jdbcTemplate, transactionManager, idAllocator,
+                properties, registry, summaryWriter);
+
+        CompletableFuture<Long> recorded = recorder.record(TransactionType.DEPOSIT, null, accountId,
+                Money.ofMinor(1), null, null);
+        recorder.close();
+
+        // Written before the writer stopped, and nothing accepted after
+        assertTrue(recorded.get(10, TimeUnit.SECONDS) > 0);
+        assertThrows(RuntimeException.class, () -> recorder.record(TransactionType.DEPOSIT, null, accountId,
+                Money.ofMinor(1), null, null));
+        assertEquals(0, recorder.getBacklog());
+        assertEquals(0.0, registry.get("bankapp.group.commit.lost").counter().count());
+    }
+}
@@ -0,0 +1,41 @@
+package com.java.bankapp.groupcommit;
+
+import com.java.bankapp.entity.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionRingTest {
+
+    @Test
+    void fullRingRefusesUntilDrainedAndKeepsOrderAcrossWraps() {
+
+        TransactionRing ring = new TransactionRing(4);
+        TransactionRing.Batch batch = new TransactionRing.Batch(3);
+        LocalDateTime now = LocalDateTime.now();
+
+        long amount = 0;
+        long expected = 0;
+        for (int round = 0; round < 5; round++) {
+            while (ring.tryPublish(TransactionType.DEPOSIT, null, 1L, amount, null, now, null)) {
+                amount++;
+            }
+            assertEquals(4, ring.size());
+            assertFalse(ring.tryPublish(TransactionType.DEPOSIT, null, 1L, -1, null, now, null));
+
+            assertEquals(3, ring.drainTo(batch));
+            assertEquals(0, ring.drainTo(batch));
+            for (int i = 0; i < batch.size; i++) {
+                assertEquals(expected++, batch.amounts[i]);
+            }
+            batch.clear();
+            assertEquals(1, ring.size());
+        }
+
+        assertTrue(ring.drainTo(batch) == 1 && batch.amounts[0] == expected);
+    }
+}
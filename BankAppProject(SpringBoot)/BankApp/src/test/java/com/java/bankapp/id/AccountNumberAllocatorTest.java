@@ -0,0 +1,104 @@
+package com.java.bankapp.id;
+
+import com.java.bankapp.config.AccountNumberProperties;
+import com.java.bankapp.dto.AccountDTO;
+import com.java.bankapp.entity.AccountType;
+import com.java.bankapp.entity.Customer;
+import com.java.bankapp.repository.CustomerRepository;
+import com.java.bankapp.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "bankapp.account-number.block-size=50")
+class AccountNumberAllocatorTest {
+
+    @Autowired
+    private AccountNumberAllocator allocator;
+
+    @Autowired
+    private AccountNumberProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void checkDigitIsLuhn() {
+        assertEquals(3, AccountNumberAllocator.checkDigit("7992739871"));
+        assertTrue(AccountNumberAllocator.isValid("79927398713"));
+        assertFalse(AccountNumberAllocator.isValid("79927398710"));
+        assertFalse(AccountNumberAllocator.isValid("7992739871x"));
+    }
+
+    @Test
+    void concurrentAllocationsAndRestartsNeverCollide() throws Exception {
+
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 300; i++) {
+                        assertTrue(numbers.add(allocator.next(AccountType.CURRENT)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        // A fresh allocator stands in for a restarted instance; it must start past every reserved block
+        AccountNumberAllocator restarted = new AccountNumberAllocator(jdbcTemplate, transactionManager, properties);
+        for (int i = 0; i < 120; i++) {
+            assertTrue(numbers.add(restarted.next(AccountType.CURRENT)));
+        }
+
+        assertEquals(2520, numbers.size());
+        for (String number : numbers) {
+            assertTrue(number.startsWith("20"));
+            assertEquals(12, number.length());
+            assertTrue(AccountNumberAllocator.isValid(number));
+        }
+    }
+
+    @Test
+    void createdAccountsCanBeLookedUpByNumber() {
+
+        Customer customer = new Customer();
+        customer.setFirstName("Asha");
+        customer.setEmail("asha.numbers@example.com");
+        customer = customerRepository.save(customer);
+
+        AccountDTO created = accountService.createAccount(customer.getId(), AccountType.SAVINGS);
+        assertTrue(created.getAccountNumber().startsWith("10"));
+
+        assertEquals(created.getId(), accountService.getAccountByNumber(created.getAccountNumber()).getId());
+        assertThrows(RuntimeException.class, () -> accountService.getAccountByNumber("100000000010"));
+    }
+}
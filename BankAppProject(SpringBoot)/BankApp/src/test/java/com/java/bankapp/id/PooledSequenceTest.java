@@ -0,0 +1,54 @@
+package com.java.bankapp.id;
+
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.bankapp.id.block-size=20")
+class PooledSequenceTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private SequenceIdAllocator idAllocator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void hibernateAndJdbcWritersShareTheSequenceWithoutCollisions() {
+
+        assertEquals(20L, jdbcTemplate.queryForObject(
+                "select increment from information_schema.sequences where sequence_name = 'ACCOUNT_SEQ'", Long.class));
+
+        Set<Long> ids = new HashSet<>();
+        for (int round = 0; round < 5; round++) {
+            for (Account account : accountRepository.saveAll(List.of(newAccount(), newAccount(), newAccount()))) {
+                assertTrue(ids.add(account.getId()));
+            }
+            for (int i = 0; i < 15; i++) {
+                assertTrue(ids.add(idAllocator.nextId("account_seq")));
+            }
+        }
+
+        assertEquals(90, ids.size());
+    }
+
+    private Account newAccount() {
+        Account account = new Account();
+        account.setBalance(Money.ZERO);
+        return account;
+    }
+}
@@ -0,0 +1,57 @@
+package com.java.bankapp.journal;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.config.JournalProperties;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// One record per segment, so every append opens a new segment file
+@SpringBootTest(properties = {
+        "bankapp.journal.enabled=true",
+        "bankapp.journal.directory=${java.io.tmpdir}/bankapp-journal-${random.uuid}",
+        "bankapp.journal.segment-size=64"
+})
+class JournalledAccountServiceTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionJournal journal;
+
+    @Autowired
+    private JournalProperties properties;
+
+    @Test
+    void aFailedAppendIsReportedToTheCaller() throws Exception {
+
+        Long accountId = TestAccounts.openEmpty(accountRepository);
+
+        accountService.deposit(accountId, Money.valueOf("1.00"));
+        long journalled = journal.getLastSequence();
+
+        try (Stream<Path> files = Files.walk(Path.of(properties.getDirectory()))) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+
+        assertThrows(RuntimeException.class, () -> accountService.deposit(accountId, Money.valueOf("2.00")));
+        assertEquals(journalled, journal.getLastSequence());
+    }
+}
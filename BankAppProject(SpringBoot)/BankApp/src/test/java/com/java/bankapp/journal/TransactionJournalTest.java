@@ -0,0 +1,71 @@
+package com.java.bankapp.journal;
+
+import com.java.bankapp.config.JournalProperties;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.money.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TransactionJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private JournalProperties properties(int recordsPerSegment) {
+        JournalProperties properties = new JournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize((long) recordsPerSegment * TransactionJournal.RECORD_SIZE);
+        properties.setFsync(JournalProperties.FsyncMode.NONE);
+        return properties;
+    }
+
+    @Test
+    void appendsAreReadBackInSequenceAcrossSegments() throws Exception {
+
+        TransactionJournal journal = new TransactionJournal(properties(4));
+
+        for (int i = 1; i <= 10; i++) {
+            assertEquals(i, journal.append(TransactionType.TRANSFER, (long) i, (long) i + 1, Money.valueOf(i + ".25")));
+        }
+
+        List<JournalRecord> records = journal.read(3, 100);
+        assertEquals(8, records.size());
+        assertEquals(3, records.get(0).sequence());
+        assertEquals(Money.valueOf("10.25"), records.get(7).amount());
+        assertEquals(11L, records.get(7).toAccountId());
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+
+        journal.close();
+    }
+
+    @Test
+    void reopeningResumesAfterTheLastWrittenRecord() throws Exception {
+
+        TransactionJournal journal = new TransactionJournal(properties(4));
+        journal.append(TransactionType.DEPOSIT, null, 7L, Money.valueOf("100"));
+        journal.append(TransactionType.WITHDRAW, 7L, null, Money.valueOf("40"));
+        journal.close();
+
+        TransactionJournal reopened = new TransactionJournal(properties(4));
+        assertEquals(2, reopened.getLastSequence());
+        assertEquals(3, reopened.append(TransactionType.DEPOSIT, null, 7L, Money.ofMinor(100)));
+
+        List<JournalRecord> records = reopened.read(1, 10);
+        assertEquals(3, records.size());
+        assertNull(records.get(0).fromAccountId());
+        assertEquals(TransactionType.WITHDRAW, records.get(1).type());
+
+        reopened.close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.java.bankapp.ledger;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.dto.TransferRequest;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.journal.JournalRecord;
+import com.java.bankapp.journal.TransactionJournal;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.service.AccountService;
+import com.java.bankapp.service.BatchTransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "bankapp.ledger.enabled=true",
+        "bankapp.journal.enabled=true",
+        "bankapp.journal.directory=${java.io.tmpdir}/bankapp-journal-${random.uuid}",
+        "bankapp.journal.segment-size=65536"
+})
+class JournalledLedgerTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BatchTransferService batchTransferService;
+
+    @Autowired
+    private TransactionJournal journal;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void everyAppliedMovementIsJournalledOnceAndRefusedOnesNever() {
+
+        Long a = TestAccounts.openEmpty(accountRepository);
+        Long b = TestAccounts.openEmpty(accountRepository);
+        long before = journal.getLastSequence();
+
+        accountService.deposit(a, Money.valueOf("10.00"));
+        accountService.transfer(a, b, Money.valueOf("4.00"));
+        assertThrows(RuntimeException.class, () -> accountService.withdraw(b, Money.valueOf("5.00")));
+
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountId(b);
+        request.setToAccountId(a);
+        request.setAmount(Money.valueOf("1.50"));
+        assertEquals(1, batchTransferService.transferBatch(List.of(request)).getSucceeded());
+
+        List<JournalRecord> records = journal.read(before + 1, 10);
+        assertEquals(3, records.size());
+        assertEquals(TransactionType.DEPOSIT, records.get(0).type());
+        assertEquals(TransactionType.TRANSFER, records.get(1).type());
+        assertEquals(b, records.get(2).fromAccountId());
+
+        assertEquals(Money.valueOf("7.50"), accountService.getAccount(a).getBalance());
+        assertEquals(Money.valueOf("2.50"), accountService.getAccount(b).getBalance());
+    }
+}
@@ -0,0 +1,109 @@
+package com.java.bankapp.ledger;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "bankapp.ledger.enabled=true")
+class LedgerEngineTest {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int TRANSFERS = 10_000;
+    private static final long OPENING_BALANCE = 1_000;
+
+    @Autowired
+    private LedgerEngine ledgerEngine;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void concurrentTransfersLoseNoUpdates() throws Exception {
+
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setBalance(Money.ofMinor(OPENING_BALANCE));
+            accounts.add(account);
+        }
+        accounts = accountRepository.saveAll(accounts);
+
+        Long[] ids = accounts.stream().map(Account::getId).toArray(Long[]::new);
+        AtomicLongArray expected = new AtomicLongArray(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            expected.set(i, OPENING_BALANCE);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+
+        for (int i = 0; i < TRANSFERS; i++) {
+            pool.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int from = random.nextInt(ACCOUNTS);
+                int to = random.nextInt(ACCOUNTS);
+                long amount = 1 + random.nextInt(50);
+                try {
+                    ledgerEngine.transfer(ids[from], ids[to], Money.ofMinor(amount));
+                    expected.addAndGet(from, -amount);
+                    expected.addAndGet(to, amount);
+                } catch (RuntimeException insufficientBalance) {
+                    // rejected transfers leave both balances untouched
+                }
+            });
+        }
+
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        long total = 0;
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Money balance = ledgerEngine.getBalance(ids[i]);
+            assertEquals(expected.get(i), balance.minorUnits());
+            total += balance.minorUnits();
+        }
+        assertEquals(ACCOUNTS * OPENING_BALANCE, total);
+
+        ledgerEngine.flush();
+        assertEquals(0, ledgerEngine.pendingFlushCount());
+
+        for (Account account : accountRepository.findAllById(List.of(ids))) {
+            assertEquals(ledgerEngine.getBalance(account.getId()), account.getBalance());
+        }
+    }
+
+    @Test
+    void failedRecordingReversesTheLedger() {
+
+        Long from = TestAccounts.open(accountRepository, Money.valueOf("10.00")).getId();
+        Long gone = TestAccounts.open(accountRepository, Money.ZERO).getId();
+
+        // The ledger still holds the account after its row is deleted, so only the Transaction insert fails
+        ledgerEngine.getBalance(gone);
+        accountRepository.deleteById(gone);
+
+        assertThrows(RuntimeException.class, () -> accountService.transfer(from, gone, Money.valueOf("4.00")));
+
+        assertEquals(Money.valueOf("10.00"), ledgerEngine.getBalance(from));
+        assertEquals(Money.ZERO, ledgerEngine.getBalance(gone));
+    }
+}
@@ -0,0 +1,79 @@
+package com.java.bankapp.metrics;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ServiceMetricsTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void prometheusExposesServicePercentilesAndStatementsPerRequest() throws Exception {
+
+        Long accountId = TestAccounts.openEmpty(accountRepository);
+
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            for (int i = 0; i < 5; i++) {
+                HttpResponse<String> deposit = http.send(HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/accounts/deposit?accountId=" + accountId + "&amount=1"))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build(), HttpResponse.BodyHandlers.ofString());
+                assertEquals(200, deposit.statusCode());
+            }
+
+            HttpResponse<String> scrape = http.send(HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/actuator/prometheus")).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, scrape.statusCode());
+
+            String body = scrape.body();
+            assertTrue(body.contains("bankapp_service_seconds{method=\"deposit\",outcome=\"success\",service=\"AccountService\",quantile=\"0.999\"}"));
+            assertTrue(body.contains("bankapp_request_statements_count{method=\"POST\",uri=\"/accounts/deposit\"} 5"));
+            assertTrue(body.contains("bankapp_hibernate_entity_loads_total"));
+        }
+
+        // The account is usually read from the second-level cache; its update and the transaction insert are batched
+        double statements = meterRegistry.get("bankapp.request.statements").tag("uri", "/accounts/deposit").summary().mean();
+        double batches = meterRegistry.get("bankapp.request.batches").tag("uri", "/accounts/deposit").summary().mean();
+        assertTrue(batches >= 1 && statements + batches >= 2, "saw " + statements + " statements and " + batches + " batches");
+    }
+
+    @Test
+    void samplingTimesOnlyAFractionOfCalls() {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ProxyFactory proxyFactory = new ProxyFactory((IntSupplier) () -> 1);
+        proxyFactory.addAdvice(new ServiceTimer("Sampled", registry, 10));
+        IntSupplier sampled = (IntSupplier) proxyFactory.getProxy();
+
+        for (int i = 0; i < 10_000; i++) {
+            sampled.getAsInt();
+        }
+
+        long timed = registry.get("bankapp.service").tag("outcome", "success").timer().count();
+        assertTrue(timed > 700 && timed < 1300, "timed " + timed + " of 10000 calls");
+    }
+}
@@ -0,0 +1,36 @@
+package com.java.bankapp.money;
+
+import com.java.bankapp.dto.TransferRequest;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void arithmeticIsExactAndOverflowChecked() {
+
+        Money balance = Money.valueOf("100.10");
+
+        assertEquals(Money.valueOf("99.85"), balance.minus(Money.valueOf("0.25")));
+        assertEquals(10010, balance.minorUnits());
+        assertEquals("100.10", balance.toString());
+
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+        assertThrows(IllegalArgumentException.class, () -> Money.valueOf("1.005"));
+    }
+
+    @Test
+    void jsonKeepsTheDecimalContract() {
+
+        TransferRequest request = jsonMapper.readValue("{\"fromAccountId\":1,\"toAccountId\":2,\"amount\":12.5}",
+                TransferRequest.class);
+
+        assertEquals(1250, request.getAmount().minorUnits());
+        assertEquals("{\"amount\":12.50,\"fromAccountId\":1,\"toAccountId\":2}", jsonMapper.writeValueAsString(request));
+    }
+}
@@ -0,0 +1,128 @@
+package com.java.bankapp.ratelimit;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "bankapp.rate-limit.enabled=true",
+        "bankapp.rate-limit.endpoints.deposit.permits-per-second=0.01",
+        "bankapp.rate-limit.endpoints.deposit.burst=3",
+        "bankapp.rate-limit.endpoints.withdraw.permits-per-second=0.01",
+        "bankapp.rate-limit.endpoints.withdraw.burst=2",
+        "bankapp.rate-limit.endpoints.batch.permits-per-second=0.01",
+        "bankapp.rate-limit.endpoints.batch.burst=2"
+})
+class RateLimitFilterTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void burstIsThrottledPerAccountWithRetryAfter() throws Exception {
+
+        Long noisy = TestAccounts.openEmpty(accountRepository);
+        Long quiet = TestAccounts.openEmpty(accountRepository);
+
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(200, deposit(http, noisy).statusCode());
+            }
+
+            HttpResponse<String> throttled = deposit(http, noisy);
+            assertEquals(429, throttled.statusCode());
+            long retryAfter = Long.parseLong(throttled.headers().firstValue("Retry-After").orElseThrow());
+            assertTrue(retryAfter > 90 && retryAfter <= 100, "Retry-After was " + retryAfter);
+
+            // Another account has its own bucket
+            assertEquals(200, deposit(http, quiet).statusCode());
+        }
+
+        assertEquals(Money.valueOf("3"), accountRepository.findById(noisy).orElseThrow().getBalance());
+        assertEquals(1.0, meterRegistry.get("bankapp.rate.limit.throttled").tag("endpoint", "deposit").counter().count());
+    }
+
+    @Test
+    void missingAndMalformedIdsShareOneBucket() throws Exception {
+
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            assertEquals(400, post(http, "/accounts/withdraw?accountId=abc&amount=1").statusCode());
+            assertEquals(400, post(http, "/accounts/withdraw?amount=1").statusCode());
+            assertEquals(429, post(http, "/accounts/withdraw?accountId=-7&amount=1").statusCode());
+        }
+    }
+
+    @Test
+    void batchTransfersAreThrottledAsAWhole() throws Exception {
+
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            for (int i = 0; i < 2; i++) {
+                assertEquals(200, postJson(http, "/accounts/transfers/batch", "[]").statusCode());
+            }
+            assertEquals(429, postJson(http, "/accounts/transfers/batch", "[]").statusCode());
+        }
+
+        assertEquals(1.0, meterRegistry.get("bankapp.rate.limit.throttled").tag("endpoint", "batch").counter().count());
+    }
+
+    @Test
+    void bucketRefillsAtTheConfiguredRate() {
+
+        AtomicLong clock = new AtomicLong();
+        TokenBucketLimiter limiter = new TokenBucketLimiter(10, 2, 100, Duration.ofMinutes(1), clock::get);
+
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertEquals(100_000_000L, limiter.tryAcquire(1L));
+
+        // One token back after 100 ms, and no more than the burst after a long pause
+        clock.addAndGet(100_000_000L);
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L) > 0);
+
+        clock.addAndGet(60_000_000_000L);
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L) > 0);
+    }
+
+    private HttpResponse<String> deposit(HttpClient http, Long accountId) throws Exception {
+        return post(http, "/accounts/deposit?accountId=" + accountId + "&amount=1");
+    }
+
+    private HttpResponse<String> post(HttpClient http, String pathAndQuery) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + pathAndQuery))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> postJson(HttpClient http, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,71 @@
+package com.java.bankapp.retry;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.config.RetryProperties;
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OptimisticRetryTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private OptimisticRetryExecutor retryExecutor;
+
+    @Test
+    void concurrentDepositsOnOneAccountAreAllApplied() throws Exception {
+
+        Long accountId = TestAccounts.openEmpty(accountRepository);
+
+        int deposits = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < deposits; i++) {
+            pool.execute(() -> accountService.deposit(accountId, Money.valueOf("1")));
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        Account reloaded = accountRepository.findById(accountId).orElseThrow();
+        assertEquals(Money.valueOf(String.valueOf(deposits)), reloaded.getBalance());
+
+        assertTrue(retryExecutor.hottestAccounts(1).stream()
+                .allMatch(hot -> hot.getAccountId().equals(accountId)));
+    }
+
+    @Test
+    void contentionStatisticsAreBounded() {
+
+        RetryProperties properties = new RetryProperties();
+        properties.setMaxAttempts(1);
+        properties.setMaximumTrackedAccounts(50);
+        OptimisticRetryExecutor executor = new OptimisticRetryExecutor(properties);
+
+        for (long i = 1; i <= 1_000; i++) {
+            Long id = i;
+            assertThrows(RuntimeException.class, () -> executor.execute(null, pessimistic -> {
+                throw new ObjectOptimisticLockingFailureException(Account.class, id);
+            }));
+        }
+
+        assertTrue(executor.trackedAccounts() <= 50, "tracked " + executor.trackedAccounts());
+    }
+}
@@ -0,0 +1,106 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.dto.AccountSummaryDTO;
+import com.java.bankapp.entity.Transaction;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class AccountSummaryTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountSummaryService accountSummaryService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    void summaryTracksMutationsAndMatchesARebuild() throws Exception {
+
+        Long a = TestAccounts.openEmpty(accountRepository);
+        Long b = TestAccounts.openEmpty(accountRepository);
+
+        accountService.deposit(a, Money.valueOf("100.00"));
+        accountService.withdraw(a, Money.valueOf("10.50"));
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 40; i++) {
+                boolean forward = i % 2 == 0;
+                executor.submit(() -> accountService.transfer(forward ? a : b, forward ? b : a, Money.valueOf("0.25")));
+            }
+        }
+        accountService.deposit(b, Money.valueOf("1.00"));
+
+        AccountSummaryDTO incremental = accountSummaryService.getSummary(a);
+
+        assertEquals(Money.valueOf("100.00"), incremental.getByType().get(TransactionType.DEPOSIT).getTotalIn());
+        assertEquals(Money.valueOf("10.50"), incremental.getByType().get(TransactionType.WITHDRAW).getTotalOut());
+        assertEquals(accountService.getAccount(a).getBalance(),
+                incremental.getTotalIn().minus(incremental.getTotalOut()));
+        assertNotNull(incremental.getLastActivityAt());
+
+        AccountSummaryDTO incrementalB = accountSummaryService.getSummary(b);
+        assertEquals(accountService.getAccount(b).getBalance(),
+                incrementalB.getTotalIn().minus(incrementalB.getTotalOut()));
+
+        accountSummaryService.rebuild();
+
+        assertSameTotals(incremental, accountSummaryService.getSummary(a));
+        assertSameTotals(incrementalB, accountSummaryService.getSummary(b));
+    }
+
+    @Test
+    void unknownAccountIsReportedAndQuietAccountIsEmpty() {
+
+        assertThrows(RuntimeException.class, () -> accountSummaryService.getSummary(Long.MAX_VALUE));
+
+        AccountSummaryDTO summary = accountSummaryService.getSummary(TestAccounts.openEmpty(accountRepository));
+        assertEquals(0, summary.getTransactionCount());
+        assertEquals(Money.ZERO, summary.getTotalIn());
+        assertFalse(summary.getByType().containsKey(TransactionType.DEPOSIT));
+    }
+
+    @Test
+    void asyncRecordingWithoutGroupCommitUpdatesTheSummary() {
+
+        Long account = TestAccounts.openEmpty(accountRepository);
+
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(TransactionType.DEPOSIT);
+        transaction.setAmount(Money.valueOf("7.00"));
+        transaction.setToAccount(accountRepository.getReferenceById(account));
+
+        assertNotNull(transactionService.recordTransactionAsync(transaction).join());
+        assertEquals(Money.valueOf("7.00"), accountSummaryService.getSummary(account).getTotalIn());
+    }
+
+    private void assertSameTotals(AccountSummaryDTO expected, AccountSummaryDTO actual) {
+        assertEquals(expected.getTotalIn(), actual.getTotalIn());
+        assertEquals(expected.getTotalOut(), actual.getTotalOut());
+        assertEquals(expected.getTransactionCount(), actual.getTransactionCount());
+        assertEquals(expected.getByType().keySet(), actual.getByType().keySet());
+        expected.getByType().forEach((type, totals) -> {
+            assertEquals(totals.getTransactionCount(), actual.getByType().get(type).getTransactionCount());
+            assertEquals(totals.getTotalIn(), actual.getByType().get(type).getTotalIn());
+        });
+    }
+}
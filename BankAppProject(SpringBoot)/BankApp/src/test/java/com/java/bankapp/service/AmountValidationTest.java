@@ -0,0 +1,46 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class AmountValidationTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void zeroNegativeAndMissingAmountsMoveNothing() {
+
+        Long a = TestAccounts.open(accountRepository, Money.valueOf("10.00")).getId();
+
+        Long b = TestAccounts.open(accountRepository, Money.valueOf("10.00")).getId();
+
+        for (Money amount : new Money[]{Money.valueOf("-5.00"), Money.ZERO, null}) {
+            assertEquals("Amount must be positive",
+                    assertThrows(RuntimeException.class, () -> accountService.withdraw(a, amount)).getMessage());
+            assertEquals("Amount must be positive",
+                    assertThrows(RuntimeException.class, () -> accountService.deposit(a, amount)).getMessage());
+            assertEquals("Amount must be positive",
+                    assertThrows(RuntimeException.class, () -> accountService.transfer(a, b, amount)).getMessage());
+        }
+
+        assertEquals(Money.valueOf("10.00"), accountService.getAccount(a).getBalance());
+        assertEquals(Money.valueOf("10.00"), accountService.getAccount(b).getBalance());
+        assertTrue(transactionService.getTransactionsByAccount(a, null, 10).getTransactions().isEmpty());
+    }
+}
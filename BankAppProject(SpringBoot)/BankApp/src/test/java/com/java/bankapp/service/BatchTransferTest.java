@@ -0,0 +1,51 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.dto.BatchTransferResponse;
+import com.java.bankapp.dto.TransferRequest;
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BatchTransferTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BatchTransferService batchTransferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void aNullEntryFailsAloneWithoutRollingBackItsChunk() {
+
+        Long a = TestAccounts.open(accountRepository, Money.valueOf("10.00")).getId();
+
+        Long b = TestAccounts.openEmpty(accountRepository);
+
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountId(a);
+        request.setToAccountId(b);
+        request.setAmount(Money.valueOf("2.00"));
+
+        BatchTransferResponse response = batchTransferService.transferBatch(Arrays.asList(request, null, request));
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertEquals("Account ids are required", response.getResults().get(1).getError());
+        assertEquals(Money.valueOf("6.00"), accountService.getAccount(a).getBalance());
+        assertEquals(Money.valueOf("4.00"), accountService.getAccount(b).getBalance());
+    }
+}
@@ -0,0 +1,100 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.dto.ImportResult;
+import com.java.bankapp.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "bankapp.import.chunk-size=2")
+class CustomerImportTest {
+
+    @Autowired
+    private CustomerImportService customerImportService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void validRowsAreImportedAndBadRowsRejected() throws Exception {
+
+        String jobId = "import-" + UUID.randomUUID();
+        String csv = """
+                firstName,lastName,email,dateOfBirth
+                Asha,Rao,asha@example.com,1990-04-12
+                ,Missing,nobody@example.com,1990-01-01
+                "Ravi, Jr",Kumar,ravi@example.com,1985-11-30
+                Dup,Row,asha@example.com,1991-01-01
+                Meera,Iyer,not-an-email,1992-02-02
+                """;
+
+        ImportResult result = customerImportService.importCustomers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "csv", jobId);
+
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getRejected());
+        assertEquals("Ravi, Jr", customerRepository.findByEmail("ravi@example.com").orElseThrow().getFirstName());
+        assertEquals(3, Files.readAllLines(Path.of(result.getRejectFile())).size());
+
+        // Posting the same job again resumes after the checkpoint and inserts nothing twice
+        ImportResult resumed = customerImportService.importCustomers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "csv", jobId);
+
+        assertEquals(6, resumed.getResumedAfterLine());
+        assertEquals(2, resumed.getImported());
+    }
+
+    @Test
+    void aChunkThatFailsToCommitLeavesNoRejectLinesBehind() throws Exception {
+
+        String jobId = "import-" + UUID.randomUUID();
+        String template = """
+                firstName,email
+                Lata,lata@example.com
+                Broken,broken-email
+                %s,gopal@example.com
+                Also,also-broken
+                """;
+        // Too long for the column, so the second chunk's insert fails after its reject line is written
+        String failing = template.formatted("G".repeat(300));
+
+        assertThrows(RuntimeException.class, () -> customerImportService.importCustomers(
+                new ByteArrayInputStream(failing.getBytes(StandardCharsets.UTF_8)), "csv", jobId));
+
+        String fixed = template.formatted("Gopal");
+        ImportResult resumed = customerImportService.importCustomers(
+                new ByteArrayInputStream(fixed.getBytes(StandardCharsets.UTF_8)), "csv", jobId);
+
+        assertEquals(3, resumed.getResumedAfterLine());
+        assertEquals(2, resumed.getImported());
+        assertEquals(2, resumed.getRejected());
+        assertEquals(2, Files.readAllLines(Path.of(resumed.getRejectFile())).size());
+        assertTrue(customerRepository.existsByEmail("gopal@example.com"));
+    }
+
+    @Test
+    void ndjsonRowsAreImported() {
+
+        String ndjson = """
+                {"firstName":"Kiran","email":"kiran@example.com","dateOfBirth":"1980-05-05"}
+                {"firstName":"Bad","email":"kiran-at-example"}
+                """;
+
+        ImportResult result = customerImportService.importCustomers(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), "ndjson", null);
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertTrue(customerRepository.existsByEmail("kiran@example.com"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.dto.InterestRunDTO;
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.entity.AccountStatus;
+import com.java.bankapp.entity.AccountType;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "bankapp.interest.annual-rate-bps.SAVINGS=365",
+        "bankapp.interest.partitions=4",
+        "bankapp.interest.page-size=100"
+})
+class InterestAccrualTest {
+
+    private static final int SAVINGS = 1_000;
+
+    @Autowired
+    private InterestService interestService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void accruesOnceForEveryEligibleAccount() {
+
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < SAVINGS + 20; i++) {
+            Account account = new Account();
+            account.setBalance(Money.valueOf("10000.00"));
+            account.setAccountType(i < SAVINGS ? AccountType.SAVINGS : AccountType.CURRENT);
+            account.setStatus(i % 100 == 99 ? AccountStatus.BLOCKED : AccountStatus.ACTIVE);
+            accounts.add(account);
+        }
+        accounts = accountRepository.saveAll(accounts);
+
+        LocalDate day = LocalDate.of(2026, 1, 15);
+        InterestRunDTO run = interestService.accrueInterest(day);
+
+        // 3.65% a year on 10,000.00 over a 365-day basis is exactly 1.00 a day; every 100th account is blocked
+        long eligible = SAVINGS - SAVINGS / 100;
+        assertEquals(eligible, run.getAccountsAccrued());
+        assertEquals(Money.valueOf(String.valueOf(eligible)), run.getTotalInterest());
+        assertEquals(Money.valueOf("10001.00"), accountRepository.findById(accounts.get(0).getId()).orElseThrow().getBalance());
+        assertEquals(Money.valueOf("10000.00"), accountRepository.findById(accounts.get(SAVINGS).getId()).orElseThrow().getBalance());
+        assertEquals(eligible, jdbcTemplate.queryForObject(
+                "select count(*) from transaction where transaction_type = 'INTEREST'", Long.class));
+
+        assertEquals(0, interestService.accrueInterest(day).getAccountsAccrued());
+        assertEquals(eligible, interestService.accrueInterest(day.plusDays(1)).getAccountsAccrued());
+    }
+}
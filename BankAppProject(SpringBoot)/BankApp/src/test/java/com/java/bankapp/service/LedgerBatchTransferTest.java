@@ -0,0 +1,69 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.dto.AccountSummaryDTO;
+import com.java.bankapp.dto.BatchTransferResponse;
+import com.java.bankapp.dto.TransferRequest;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "bankapp.ledger.enabled=true")
+class LedgerBatchTransferTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BatchTransferService batchTransferService;
+
+    @Autowired
+    private AccountSummaryService accountSummaryService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void ledgerBatchRecordsEveryTransferAndItsSummary() {
+
+        Long a = TestAccounts.openEmpty(accountRepository);
+        Long b = TestAccounts.openEmpty(accountRepository);
+        accountService.deposit(a, Money.valueOf("10.00"));
+
+        List<TransferRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(request(i % 2 == 0 ? a : b, i % 2 == 0 ? b : a, "0.50"));
+        }
+        requests.add(request(b, a, "1000.00"));
+
+        BatchTransferResponse response = batchTransferService.transferBatch(requests);
+
+        assertEquals(20, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        assertEquals("Insufficient balance", response.getResults().get(20).getError());
+
+        for (Long account : List.of(a, b)) {
+            AccountSummaryDTO summary = accountSummaryService.getSummary(account);
+            assertEquals(accountService.getAccount(account).getBalance(),
+                    summary.getTotalIn().minus(summary.getTotalOut()));
+            assertEquals(20, summary.getByType().get(TransactionType.TRANSFER).getTransactionCount());
+        }
+        assertEquals(Money.valueOf("10.00"), accountService.getAccount(a).getBalance());
+    }
+
+    private TransferRequest request(Long from, Long to, String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountId(from);
+        request.setToAccountId(to);
+        request.setAmount(Money.valueOf(amount));
+        return request;
+    }
+}
@@ -0,0 +1,107 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.dto.ReconciliationRunDTO;
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "bankapp.reconciliation.leaf-width=8",
+        "bankapp.reconciliation.leaf-accounts=3",
+        "bankapp.reconciliation.parallelism=4",
+        "bankapp.reconciliation.incremental-overlap=0"
+})
+class ReconciliationTest {
+
+    private static final int ACCOUNTS = 40;
+
+    @Autowired
+    private ReconciliationService reconciliationService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void reportsOnlyBalancesThatDifferFromTheReplayedTransactions() throws Exception {
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids.add(TestAccounts.openEmpty(accountRepository));
+        }
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountService.deposit(ids.get(i), Money.valueOf("100.00"));
+            accountService.transfer(ids.get(i), ids.get((i + 7) % ACCOUNTS), Money.valueOf("12.34"));
+            if (i % 3 == 0) {
+                accountService.withdraw(ids.get(i), Money.valueOf("5.01"));
+            }
+        }
+
+        long tampered = ids.get(17);
+        tamper(tampered, 1);
+
+        ReconciliationRunDTO full = reconciliationService.reconcile(false);
+
+        assertFalse(full.isIncremental());
+        assertTrue(full.getLeaves() > 1);
+        assertEquals(ACCOUNTS, full.getAccountsChecked());
+        // Every deposit and withdrawal replays once, every transfer twice
+        assertEquals(ACCOUNTS + 2 * ACCOUNTS + (ACCOUNTS + 2) / 3, full.getTransactionsReplayed());
+        assertEquals(1, full.getMismatches());
+
+        List<String> report = Files.readAllLines(Path.of(full.getReportFile()));
+        assertEquals(List.of("account_id,balance,replayed,difference", tampered + ",100.01,100.00,0.01"), report);
+
+        // Only accounts touched since the mark are replayed, so the tampered account is skipped until it moves
+        long untouched = ids.get(3);
+        tamper(untouched, -1);
+        accountService.deposit(ids.get(30), Money.valueOf("1.00"));
+
+        ReconciliationRunDTO incremental = reconciliationService.reconcile(true);
+
+        assertTrue(incremental.isIncremental());
+        assertEquals(full.getHighWaterMark(), incremental.getFromTransactionId());
+        assertEquals(1, incremental.getAccountsChecked());
+        assertEquals(0, incremental.getMismatches());
+
+        accountService.transfer(ids.get(30), tampered, Money.valueOf("1.00"));
+
+        ReconciliationRunDTO next = reconciliationService.reconcile(true);
+
+        assertEquals(2, next.getAccountsChecked());
+        assertEquals(1, next.getMismatches());
+        assertEquals(tampered + ",101.01,101.00,0.01", Files.readAllLines(Path.of(next.getReportFile())).get(1));
+
+        assertEquals(2, reconciliationService.reconcile(false).getMismatches());
+    }
+
+    // An out-of-band edit, so the second-level cache must not keep serving the old balance
+    private void tamper(long accountId, long minorUnits) {
+        jdbcTemplate.update("update account set balance = balance + ? where id = ?", minorUnits, accountId);
+        entityManagerFactory.getCache().evict(Account.class, accountId);
+    }
+}
@@ -0,0 +1,154 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.id.SequenceIdAllocator;
+import com.java.bankapp.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StatementExportTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SequenceIdAllocator idAllocator;
+
+    @Autowired
+    private StatementService statementService;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Test
+    void statementMergesDebitsAndCreditsInDateOrderWithinTheRange() throws Exception {
+
+        long a = TestAccounts.openEmpty(accountRepository);
+        long b = TestAccounts.openEmpty(accountRepository);
+
+        insert("DEPOSIT", null, a, 100, "2026-01-01T10:00", null);
+        insert("TRANSFER", a, b, 250, "2026-01-02T09:00", null);
+        insert("TRANSFER", b, a, 75, "2026-01-03T12:30:15.250", "Rent, \"Jan\"");
+        insert("TRANSFER", a, a, 5, "2026-01-31T23:59", null);
+        insert("DEPOSIT", null, a, 999, "2026-02-01T00:00", null);
+        insert("DEPOSIT", null, b, 999, "2026-01-02T00:00", null);
+
+        try (HttpClient http = HttpClient.newHttpClient()) {
+
+            HttpResponse<String> csv = get(http, "/accounts/" + a + "/statement?from=2026-01-01&to=2026-01-31");
+            assertEquals(200, csv.statusCode());
+            assertTrue(csv.headers().firstValue("Content-Type").orElseThrow().startsWith("text/csv"));
+
+            String[] lines = csv.body().split("\n");
+            assertEquals(6, lines.length);
+            assertEquals("id,date,type,direction,amount,counterparty,description", lines[0]);
+            assertTrue(lines[1].endsWith(",2026-01-01T10:00:00.000,DEPOSIT,CREDIT,1.00,,"));
+            assertTrue(lines[2].endsWith(",2026-01-02T09:00:00.000,TRANSFER,DEBIT,2.50," + b + ","));
+            assertTrue(lines[3].endsWith(",2026-01-03T12:30:15.250,TRANSFER,CREDIT,0.75," + b + ",\"Rent, \"\"Jan\"\"\""));
+            // A transfer to the same account shows both legs
+            assertTrue(lines[4].contains(",DEBIT,0.05," + a + ","));
+            assertTrue(lines[5].contains(",CREDIT,0.05," + a + ","));
+
+            HttpResponse<String> ndjson = get(http, "/accounts/" + a + "/statement?from=2026-01-03&to=2026-01-03&format=ndjson");
+            assertEquals(200, ndjson.statusCode());
+            JsonNode line = jsonMapper.readTree(ndjson.body().strip());
+            assertEquals("Rent, \"Jan\"", line.get("description").asString());
+            assertEquals(0.75, line.get("amount").asDouble());
+            assertEquals(b, line.get("counterparty").asLong());
+
+            assertEquals(500, get(http, "/accounts/" + a + "/statement?from=2026-02-01&to=2026-01-01").statusCode());
+        }
+    }
+
+    @Test
+    void longHistoriesStreamEveryRow() {
+
+        long account = TestAccounts.openEmpty(accountRepository);
+        int rows = 100_000;
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            boolean credit = i % 3 != 0;
+            batch.add(new Object[]{idAllocator.nextId("transaction_seq"), credit ? "DEPOSIT" : "WITHDRAW", 100 + i,
+                    Timestamp.valueOf(start.plusMinutes(i)), credit ? null : account, credit ? account : null});
+            if (batch.size() == 5_000) {
+                insertBatch(batch);
+            }
+        }
+        insertBatch(batch);
+
+        LineCounter counter = new LineCounter();
+        statementService.writeStatement(account, LocalDate.of(2019, 1, 1), LocalDate.of(2030, 1, 1), "ndjson", counter);
+
+        assertEquals(rows, counter.lines);
+    }
+
+    private void insert(String type, Long from, Long to, long amount, String date, String description) {
+        jdbcTemplate.update("""
+                        insert into transaction (id, transaction_type, amount, description, transaction_date, from_account_id, to_account_id)
+                        values (?, ?, ?, ?, ?, ?, ?)
+                        """, idAllocator.nextId("transaction_seq"), type, amount, description,
+                Timestamp.valueOf(LocalDateTime.parse(date)), from, to);
+    }
+
+    private void insertBatch(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("""
+                insert into transaction (id, transaction_type, amount, transaction_date, from_account_id, to_account_id)
+                values (?, ?, ?, ?, ?, ?)
+                """, batch);
+        batch.clear();
+    }
+
+    private HttpResponse<String> get(HttpClient http, String path) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static final class LineCounter extends OutputStream {
+
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (bytes[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.dto.AccountDTO;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.repository.AccountShardRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class SubLedgerTest {
+
+    private static final int DEPOSITS = 400;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private SubLedgerService subLedgerService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountShardRepository accountShardRepository;
+
+    @Test
+    void concurrentDepositsAllLandInTheShards() throws Exception {
+
+        Long accountId = TestAccounts.open(accountRepository, Money.valueOf("100")).getId();
+        subLedgerService.enableSharding(accountId, 4);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(16)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < DEPOSITS; i++) {
+                futures.add(pool.submit(() -> accountService.deposit(accountId, Money.valueOf("1"))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        // The opening balance moved to shard 0 and every deposit went to one of the shards
+        assertEquals(Money.valueOf("100").plus(Money.valueOf(String.valueOf(DEPOSITS))),
+                Money.ofMinor(accountShardRepository.totalBalance(accountId)));
+
+        accountService.withdraw(accountId, Money.valueOf(String.valueOf(DEPOSITS + 50)));
+        AccountDTO reloaded = accountService.getAccount(accountId);
+        assertEquals(Money.valueOf("50"), reloaded.getBalance());
+    }
+}
@@ -0,0 +1,79 @@
+package com.java.bankapp.service;
+
+import com.java.bankapp.TestAccounts;
+import com.java.bankapp.dto.TransactionDTO;
+import com.java.bankapp.dto.TransactionPageDTO;
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.entity.Transaction;
+import com.java.bankapp.entity.TransactionType;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class TransactionHistoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void pagesMergeBothDirectionsNewestFirst() {
+
+        Account a = TestAccounts.open(accountRepository, Money.ZERO);
+        Account b = TestAccounts.open(accountRepository, Money.ZERO);
+
+        // Debits and credits interleaved, with ties on the date and one transfer to itself
+        List<Long> history = new ArrayList<>(List.of(
+                record(null, a, 0),
+                record(a, b, 1),
+                record(b, a, 1),
+                record(a, null, 2),
+                record(a, a, 3),
+                record(b, a, 3)));
+        record(b, null, 4);
+        history.add(record(a, b, 5));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPageDTO page = transactionService.getTransactionsByAccount(a.getId(), cursor, 3);
+            page.getTransactions().stream().map(TransactionDTO::getId).forEach(seen::add);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(history.reversed(), seen);
+        assertEquals(3, pages);
+        assertNull(transactionService.getTransactionsByAccount(b.getId(), null, 10).getNextCursor());
+    }
+
+    private Long record(Account from, Account to, int minutes) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(from != null && to != null ? TransactionType.TRANSFER
+                : from != null ? TransactionType.WITHDRAW : TransactionType.DEPOSIT);
+        transaction.setAmount(Money.valueOf("1.00"));
+        transaction.setTransactionDate(START.plusMinutes(minutes));
+        transaction.setFromAccount(from);
+        transaction.setToAccount(to);
+        return transactionRepository.save(transaction).getId();
+    }
+}
@@ -0,0 +1,45 @@
+package com.java.bankapp.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 200_000;
+
+    @Test
+    void sequentialIdsAreSpreadEvenly() {
+
+        ConsistentHashRing ring = new ConsistentHashRing(4, 256);
+
+        int[] counts = new int[4];
+        for (long id = 1; id <= KEYS; id++) {
+            counts[ring.shardFor(id)]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(Math.abs(count - KEYS / 4) < KEYS / 4 / 10, "shard holds " + count + " of " + KEYS);
+        }
+    }
+
+    @Test
+    void addingAShardOnlyMovesIdsOntoIt() {
+
+        ConsistentHashRing four = new ConsistentHashRing(4, 256);
+        ConsistentHashRing five = new ConsistentHashRing(5, 256);
+
+        int moved = 0;
+        for (long id = 1; id <= KEYS; id++) {
+            int before = four.shardFor(id);
+            int after = five.shardFor(id);
+            if (before != after) {
+                assertEquals(4, after);
+                moved++;
+            }
+        }
+
+        assertTrue(Math.abs(moved - KEYS / 5) < KEYS / 5 / 5, moved + " of " + KEYS + " ids moved");
+    }
+}
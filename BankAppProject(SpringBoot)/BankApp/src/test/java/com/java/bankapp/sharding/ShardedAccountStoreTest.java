@@ -0,0 +1,137 @@
+package com.java.bankapp.sharding;
+
+import com.java.bankapp.entity.Customer;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.CustomerRepository;
+import com.java.bankapp.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "bankapp.sharding.enabled=true",
+        "bankapp.sharding.databases=3",
+        "bankapp.sharding.url-template=jdbc:h2:mem:sharded-store-test-%d;DB_CLOSE_DELAY=-1",
+        "bankapp.sharding.saga-stale-after=0s",
+        "bankapp.sharding.recovery-interval-ms=3600000"
+})
+class ShardedAccountStoreTest {
+
+    private static final int ACCOUNTS = 30;
+    private static final int TRANSFERS = 2_000;
+
+    @Autowired
+    private ShardedAccountStore store;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void transfersWithinAndAcrossShardsConserveMoney() throws Exception {
+
+        List<Long> ids = openAccounts("conserve", Money.valueOf("100.00"));
+
+        boolean[] used = new boolean[store.shardCount()];
+        ids.forEach(id -> used[store.shardOf(id)] = true);
+        for (boolean shardUsed : used) {
+            assertTrue(shardUsed);
+        }
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < TRANSFERS; i++) {
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    try {
+                        accountService.transfer(ids.get(random.nextInt(ACCOUNTS)), ids.get(random.nextInt(ACCOUNTS)),
+                                Money.ofMinor(1 + random.nextInt(2_000)));
+                    } catch (RuntimeException e) {
+                        assertEquals("Insufficient balance", e.getMessage());
+                    }
+                }));
+            }
+            // Rethrows any assertion that failed on a pool thread
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        }
+
+        long total = 0;
+        for (Long id : ids) {
+            long balance = accountService.getAccount(id).getBalance().minorUnits();
+            assertTrue(balance >= 0);
+            total += balance;
+        }
+        assertEquals(ACCOUNTS * 10_000L, total);
+        // Every saga was settled by its caller
+        assertEquals(0, store.recoverSagas());
+    }
+
+    @Test
+    void aTransferToAMissingAccountOnAnotherShardIsCompensated() {
+
+        long sender = openAccounts("compensate", Money.valueOf("50.00")).get(0);
+
+        long missing = 1_000_000;
+        while (store.shardOf(missing) == store.shardOf(sender)) {
+            missing++;
+        }
+        long receiver = missing;
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> accountService.transfer(sender, receiver, Money.valueOf("20.00")));
+        assertEquals("Receiver account not found", e.getMessage());
+        assertEquals(Money.valueOf("50.00"), accountService.getAccount(sender).getBalance());
+        assertEquals(0, store.recoverSagas());
+    }
+
+    @Test
+    void recoveryFinishesASagaLeftDebited() {
+
+        List<Long> ids = openAccounts("recover", Money.valueOf("10.00"));
+        long sender = ids.get(0);
+        long receiver = ids.stream().filter(id -> store.shardOf(id) != store.shardOf(sender)).findFirst().orElseThrow();
+
+        // The caller stops after the debit, as if it crashed before reaching the receiver's shard
+        store.begin(sender, receiver, 300);
+        assertEquals(Money.valueOf("7.00"), accountService.getAccount(sender).getBalance());
+        assertEquals(Money.valueOf("10.00"), accountService.getAccount(receiver).getBalance());
+
+        assertEquals(1, store.recoverSagas());
+        assertEquals(Money.valueOf("13.00"), accountService.getAccount(receiver).getBalance());
+        assertEquals(0, store.recoverSagas());
+    }
+
+    private List<Long> openAccounts(String name, Money openingDeposit) {
+
+        Customer customer = new Customer();
+        customer.setFirstName(name);
+        customer.setEmail(name + ".shards@example.com");
+        Long customerId = customerRepository.save(customer).getId();
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Long id = accountService.createAccount(customerId, null).getId();
+            accountService.deposit(id, openingDeposit);
+            ids.add(id);
+        }
+        assertNotEquals(ids.get(0), ids.get(1));
+        return ids;
+    }
+}
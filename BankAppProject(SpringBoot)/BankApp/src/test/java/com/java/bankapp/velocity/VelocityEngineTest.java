@@ -0,0 +1,140 @@
+package com.java.bankapp.velocity;
+
+import com.java.bankapp.config.VelocityProperties;
+import com.java.bankapp.entity.Account;
+import com.java.bankapp.entity.AccountType;
+import com.java.bankapp.money.Money;
+import com.java.bankapp.repository.AccountRepository;
+import com.java.bankapp.service.AccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "bankapp.velocity.enabled=true")
+class VelocityEngineTest {
+
+    @Autowired
+    private VelocityProperties properties;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    private VelocityEngine engine(AccountType type) {
+        return new VelocityEngine(properties, id -> type, clock::get);
+    }
+
+    @Test
+    void countLimitSlidesOutWithTheWindow() {
+
+        VelocityEngine engine = engine(AccountType.SAVINGS);
+        for (int i = 0; i < 5; i++) {
+            engine.reserve(1L, Money.valueOf("1"));
+            clock.addAndGet(1_000);
+        }
+        assertThrows(RuntimeException.class, () -> engine.reserve(1L, Money.valueOf("1")));
+
+        // A refused attempt is not counted, and a minute later the burst has slid out
+        clock.addAndGet(61_000);
+        engine.reserve(1L, Money.valueOf("1"));
+        engine.reserve(2L, Money.valueOf("1"));
+    }
+
+    @Test
+    void dailyAmountLimitAndReleasedReservations() {
+
+        VelocityEngine engine = engine(AccountType.SAVINGS);
+
+        long reservedAt = engine.reserve(7L, Money.valueOf("150000.00"));
+        assertThrows(RuntimeException.class, () -> engine.reserve(7L, Money.valueOf("50000.01")));
+
+        engine.release(7L, reservedAt, Money.valueOf("150000.00"));
+        engine.reserve(7L, Money.valueOf("200000.00"));
+
+        // The sliding-out bucket is weighted as if spread evenly, so an amount is fully gone one bucket after the window
+        clock.addAndGet(30L * 60 * 60 * 1000);
+        engine.reserve(7L, Money.valueOf("200000.00"));
+    }
+
+    @Test
+    void concurrentReservationsNeverOvershootALimit() throws Exception {
+
+        VelocityEngine engine = engine(AccountType.SAVINGS);
+        AtomicInteger accepted = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 1000; i++) {
+                executor.submit(() -> {
+                    try {
+                        engine.reserve(3L, Money.valueOf("1"));
+                        accepted.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // refused
+                    }
+                });
+            }
+        }
+
+        assertEquals(5, accepted.get(), "the per-minute count limit is 5");
+    }
+
+    @Test
+    void amountsOutsideTheBucketRangeCannotResetAWindow() {
+
+        VelocityEngine engine = engine(AccountType.SAVINGS);
+        for (int i = 0; i < 5; i++) {
+            engine.reserve(4L, Money.valueOf("1"));
+        }
+
+        assertThrows(RuntimeException.class, () -> engine.reserve(4L, Money.valueOf("-0.01")));
+        assertThrows(RuntimeException.class, () -> engine.reserve(4L, Money.ZERO));
+        assertThrows(RuntimeException.class, () -> engine.reserve(4L, Money.ofMinor(1L << 44)));
+
+        RuntimeException refused = assertThrows(RuntimeException.class, () -> engine.reserve(4L, Money.valueOf("1")));
+        assertEquals("Velocity limit exceeded for minute window, please try again later", refused.getMessage());
+    }
+
+    @Test
+    void unknownAccountsAreNotTracked() {
+
+        VelocityEngine engine = engine(null);
+        for (long id = 1; id <= 100; id++) {
+            assertEquals(-1, engine.reserve(id, Money.valueOf("1")));
+        }
+
+        assertEquals(0, engine.trackedAccounts());
+    }
+
+    @Test
+    void withdrawalsBeyondTheLimitAreRefusedBeforeTheDatabase() {
+
+        Account account = new Account();
+        account.setBalance(Money.valueOf("100"));
+        account.setAccountType(AccountType.SAVINGS);
+        Long accountId = accountRepository.save(account).getId();
+
+        // Failing for insufficient balance releases the reservation
+        assertThrows(RuntimeException.class, () -> accountService.withdraw(accountId, Money.valueOf("1000")));
+
+        for (int i = 0; i < 5; i++) {
+            accountService.withdraw(accountId, Money.valueOf("1"));
+        }
+        RuntimeException refused = assertThrows(RuntimeException.class,
+                () -> accountService.withdraw(accountId, Money.valueOf("1")));
+
+        assertEquals("Velocity limit exceeded for minute window, please try again later", refused.getMessage());
+        assertEquals(Money.valueOf("95"), accountService.getAccount(accountId).getBalance());
+    }
+}